@@ -0,0 +1,308 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Background thread that periodically snapshots the table without taking any of its locks
+// (volatile states, fork holders and hungry timestamps) and derives:
+//   - the wait-for graph: hungry diner d -> holder of the fork d is blocked on (or of every
+//     fork it needs, if the strategy doesn't say which it is blocked on); a cycle that
+//     persists across two scans with no meals eaten by its members is reported as deadlock
+//   - starvation: diners hungry for longer than the threshold
+// Results are exposed over JMX and handed to an optional listener after each scan.
+public class ContentionMonitor implements ContentionMonitorMBean, Runnable {
+    static final String OBJECT_NAME = "DiningPhilosophers:type=ContentionMonitor";
+
+    private final DiningTable table;
+    private final long intervalMillis;
+    private final long starvationNanos;
+    private volatile Consumer<ContentionMonitor> listener;
+    private Thread thread;
+
+    // Snapshot buffers, reused between scans
+    private final boolean[] hungry;
+    private final int[] holders;
+    private final int[] blockedOn;
+
+    // Results of the last scan
+    private volatile long mealCount;
+    private volatile double mealsPerSecond;
+    private volatile int hungryCount;
+    private volatile long maxHungryNanos;
+    private volatile int maxHungryPhilosopher = -1;
+    private volatile int starvingCount;
+    private volatile int[] deadlockCycle = new int[0];
+    private volatile long scanCount;
+    private volatile long lastScanNanos;
+
+    private int[] previousCycle = new int[0];
+    private long previousCycleMeals = -1;
+    private long previousScanTime;
+    private long previousMealCount;
+
+    public ContentionMonitor(DiningTable table, long intervalMillis, long starvationMillis) {
+        this.table = table;
+        this.intervalMillis = intervalMillis;
+        this.starvationNanos = starvationMillis * 1_000_000;
+        hungry = new boolean[table.size()];
+        holders = new int[table.getTopology().forkCount];
+        blockedOn = new int[table.size()];
+    }
+
+    public void setListener(Consumer<ContentionMonitor> listener) {
+        this.listener = listener;
+    }
+
+    // Registers the MBean and starts scanning on a daemon thread
+    public void start() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.err.println("Could not register contention monitor MBean: " + e.getMessage());
+        }
+        previousScanTime = System.nanoTime();
+        thread = new Thread(this, "contention-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.interrupted()) {
+                Thread.sleep(intervalMillis);
+                scan();
+                Consumer<ContentionMonitor> l = listener;
+                if (l != null) {
+                    l.accept(this);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One pass over the table; public so headless runs can take a final reading
+    public synchronized void scan() {
+        long start = System.nanoTime();
+        int n = table.size();
+        ForkStrategy forks = table.getForkStrategy();
+
+        int hungryNow = 0;
+        int starving = 0;
+        long maxHungry = 0;
+        int maxHungryId = -1;
+        for (int d = 0; d < n; d++) {
+            hungry[d] = table.getState(d) == PhilosopherState.HUNGRY;
+            if (hungry[d]) {
+                hungryNow++;
+                long waited = start - table.getHungrySince(d);
+                if (waited > maxHungry) {
+                    maxHungry = waited;
+                    maxHungryId = d;
+                }
+                if (waited > starvationNanos) {
+                    starving++;
+                }
+            }
+        }
+        for (int f = 0; f < holders.length; f++) {
+            holders[f] = forks.holder(f);
+        }
+        for (int d = 0; d < n; d++) {
+            blockedOn[d] = hungry[d] ? forks.waitingFor(d) : -1;
+        }
+
+        int[] cycle = findCycle();
+        long cycleMeals = mealsOf(cycle);
+        boolean confirmed = cycle.length > 0 && Arrays.equals(cycle, previousCycle)
+                && cycleMeals == previousCycleMeals;
+        previousCycle = cycle;
+        previousCycleMeals = cycleMeals;
+
+        long meals = table.getStats().totalMeals();
+        double seconds = (start - previousScanTime) / 1e9;
+        mealsPerSecond = (seconds > 0) ? (meals - previousMealCount) / seconds : 0;
+        previousMealCount = meals;
+        previousScanTime = start;
+
+        mealCount = meals;
+        hungryCount = hungryNow;
+        maxHungryNanos = maxHungry;
+        maxHungryPhilosopher = maxHungryId;
+        starvingCount = starving;
+        deadlockCycle = confirmed ? cycle : new int[0];
+        scanCount++;
+        lastScanNanos = System.nanoTime() - start;
+    }
+
+    // Sorted members of one cycle in the wait-for graph, or an empty array.
+    // Iterative DFS so 100k-long chains don't overflow the stack.
+    private int[] findCycle() {
+        int n = hungry.length;
+        int[][] forksOf = table.getTopology().forksOf;
+        byte[] colour = new byte[n]; // 0 unvisited, 1 on stack, 2 done
+        int[] stackNode = new int[n];
+        int[] stackEdge = new int[n];
+
+        for (int root = 0; root < n; root++) {
+            if (!hungry[root] || colour[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            stackNode[0] = root;
+            stackEdge[0] = 0;
+            colour[root] = 1;
+            while (depth >= 0) {
+                int d = stackNode[depth];
+                int[] forks = forksOf[d];
+                int edges = (blockedOn[d] == ForkStrategy.UNKNOWN) ? forks.length : (blockedOn[d] >= 0 ? 1 : 0);
+                if (stackEdge[depth] == edges) {
+                    colour[d] = 2;
+                    depth--;
+                    continue;
+                }
+                int fork = (blockedOn[d] == ForkStrategy.UNKNOWN) ? forks[stackEdge[depth]] : blockedOn[d];
+                stackEdge[depth]++;
+                int holder = holders[fork];
+                if (holder < 0 || holder == d || !hungry[holder]) {
+                    continue; // free fork, or held by someone who isn't waiting
+                }
+                if (colour[holder] == 1) {
+                    // Back edge: the cycle is the stack from holder up to d
+                    List<Integer> members = new ArrayList<>();
+                    for (int i = depth; i >= 0; i--) {
+                        members.add(stackNode[i]);
+                        if (stackNode[i] == holder) {
+                            break;
+                        }
+                    }
+                    return members.stream().mapToInt(Integer::intValue).sorted().toArray();
+                }
+                if (colour[holder] == 0) {
+                    colour[holder] = 1;
+                    depth++;
+                    stackNode[depth] = holder;
+                    stackEdge[depth] = 0;
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    private long mealsOf(int[] diners) {
+        long total = 0;
+        for (int d : diners) {
+            total += table.getStats().meals(d);
+        }
+        return total;
+    }
+
+    // One-line summary for the UI and headless output
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%.0f meals/s, %d hungry, longest wait %s (P%d)",
+                mealsPerSecond, hungryCount, TableStats.formatNanos(maxHungryNanos), maxHungryPhilosopher));
+        if (starvingCount > 0) {
+            sb.append(", ").append(starvingCount).append(" starving");
+        }
+        if (isDeadlocked()) {
+            sb.append(", DEADLOCK among ").append(deadlockCycle.length).append(" philosophers");
+        }
+        return sb.toString();
+    }
+
+    public int[] getDeadlockedPhilosophers() {
+        return deadlockCycle;
+    }
+
+    @Override
+    public long getMealCount() {
+        return mealCount;
+    }
+
+    @Override
+    public double getMealsPerSecond() {
+        return mealsPerSecond;
+    }
+
+    @Override
+    public double getFairness() {
+        return table.getStats().fairness();
+    }
+
+    @Override
+    public long getWaitP50Nanos() {
+        return table.getStats().waitPercentile(0.5);
+    }
+
+    @Override
+    public long getWaitP99Nanos() {
+        return table.getStats().waitPercentile(0.99);
+    }
+
+    @Override
+    public long getWaitP999Nanos() {
+        return table.getStats().waitPercentile(0.999);
+    }
+
+    @Override
+    public long[] getWaitHistogram() {
+        return table.getStats().waitHistogram();
+    }
+
+    @Override
+    public int getHungryCount() {
+        return hungryCount;
+    }
+
+    @Override
+    public long getMaxHungryNanos() {
+        return maxHungryNanos;
+    }
+
+    @Override
+    public int getMaxHungryPhilosopher() {
+        return maxHungryPhilosopher;
+    }
+
+    @Override
+    public int getStarvingCount() {
+        return starvingCount;
+    }
+
+    @Override
+    public boolean isDeadlocked() {
+        return deadlockCycle.length > 0;
+    }
+
+    @Override
+    public String getDeadlockCycle() {
+        return Arrays.toString(deadlockCycle);
+    }
+
+    @Override
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    @Override
+    public long getLastScanNanos() {
+        return lastScanNanos;
+    }
+}
@@ -0,0 +1,33 @@
+// JMX view of ContentionMonitor (DiningPhilosophers:type=ContentionMonitor)
+public interface ContentionMonitorMBean {
+    long getMealCount();
+
+    double getMealsPerSecond();
+
+    double getFairness();
+
+    long getWaitP50Nanos();
+
+    long getWaitP99Nanos();
+
+    long getWaitP999Nanos();
+
+    // Meals per log2 wait-time bucket: entry b counts waits in (2^(b-1), 2^b] ns
+    long[] getWaitHistogram();
+
+    int getHungryCount();
+
+    long getMaxHungryNanos();
+
+    int getMaxHungryPhilosopher();
+
+    int getStarvingCount();
+
+    boolean isDeadlocked();
+
+    String getDeadlockCycle();
+
+    long getScanCount();
+
+    long getLastScanNanos();
+}
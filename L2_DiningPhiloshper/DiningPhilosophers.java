@@ -1,37 +1,77 @@
 import java.awt.*;
-import java.util.concurrent.Semaphore;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import javax.swing.*;
 
-// State enum needs to be accessible by all classes
-enum PhilosopherState {
-    THINKING, HUNGRY, EATING
-}
-
+// Swing view of a DiningTable. Run with --headless to drive the table without any UI:
+//
+//   java DiningPhilosophers [--n N] [--topology SPEC] [--time-scale S] [--strategy NAME|all]
+//                           [--headless] [--duration SECONDS] [--starvation-ms MS]
+//                           [--event-log FILE] [--trace FILE]
+//                           [--simulate [--seed S] [--distribution uniform|exponential|constant]
+//                                       [--think-ms MEAN] [--eat-ms MEAN]]
+//
+// --strategy all (--headless or --simulate only) runs every ForkStrategy in turn and prints a comparison.
+// --topology is ring (default), grid[:ROWSxCOLS], complete, random[:DEGREE] or a file with
+// the resources of one diner per line; see Topology.
+// --simulate runs a DiningSimulation instead of threads: --duration is then virtual seconds
+// (default one hour) and the same seed reproduces the same run.
+// A ContentionMonitor watches for deadlock and for diners hungry longer than --starvation-ms;
+// it is also published over JMX as DiningPhilosophers:type=ContentionMonitor.
+// --event-log (headless only) writes every transition to FILE in EventFileWriter's format;
+// like --trace, it needs a single strategy.
+// --trace records transitions and single fork pickups to FILE with a TraceRecorder, for
+// TraceReplay; it needs a single strategy and does not apply to --simulate.
 public class DiningPhilosophers extends JFrame {
-    private static final int NUM_PHILOSOPHERS = 5;
-    private final Semaphore[] chopsticks = new Semaphore[NUM_PHILOSOPHERS];
-    private final Philosopher[] philosophers = new Philosopher[NUM_PHILOSOPHERS];
+    private static final int DEFAULT_PHILOSOPHERS = 5;
+    private static final long MONITOR_INTERVAL_MS = 500;
+    private static final long DEFAULT_STARVATION_MS = 2000;
+    // Philosopher threads record into a ring of this size; the UI drains it once per frame
+    private static final int EVENT_LOG_CAPACITY = 1 << 16;
+    private static final int HISTORY_CAPACITY = 100_000;
+    private static final int FRAME_MS = 33;
+
+    private final DiningTable table;
     private final PhilosopherPanel philosopherPanel;
-    private final JTextArea statusArea;
+    private final JList<String> logList;
     private final JButton startButton;
-    private volatile boolean isPaused = true;
-
-    public DiningPhilosophers() {
+    private final JButton stepButton;
+    private final EventLog events;
+    private final EventHistory history;
+    private final JLabel droppedLabel;
+    private final JLabel monitorLabel;
+    private final WaitHistogramPanel waitHistogram;
+    private final ContentionMonitor monitor;
+    private boolean[] deadlocked;
+
+    public DiningPhilosophers(DiningTable table, long starvationMillis) {
+        this.table = table;
+        deadlocked = new boolean[table.size()];
         setTitle("Dining Philosophers Visualization");
         setSize(800, 800);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        // Initialize chopsticks
-        for (int i = 0; i < NUM_PHILOSOPHERS; i++) {
-            chopsticks[i] = new Semaphore(1);
-        }
-
         // Create control panel
         JPanel controlPanel = new JPanel();
         startButton = new JButton("Start");
         startButton.addActionListener(e -> toggleSimulation());
         controlPanel.add(startButton);
+        stepButton = new JButton("Step");
+        stepButton.setToolTipText("Let every philosopher run one think/eat cycle, then pause again");
+        stepButton.addActionListener(e -> table.step());
+        controlPanel.add(stepButton);
+        JButton exportButton = new JButton("Export Log");
+        exportButton.addActionListener(e -> exportLog());
+        controlPanel.add(exportButton);
+        monitorLabel = new JLabel("Monitor: waiting for first scan");
+        controlPanel.add(monitorLabel);
+        waitHistogram = new WaitHistogramPanel();
+        controlPanel.add(waitHistogram);
 
         // Create legend panel
         JPanel legendPanel = new JPanel();
@@ -41,11 +81,20 @@ public class DiningPhilosophers extends JFrame {
         addLegendItem(legendPanel, "Hungry - Red", Color.RED);
         addLegendItem(legendPanel, "Eating - Green", Color.GREEN);
 
-        // Create status area
-        statusArea = new JTextArea(10, 40);
-        statusArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(statusArea);
+        // Create status log; the list only renders the rows in view
+        events = new EventLog(EVENT_LOG_CAPACITY);
+        history = new EventHistory(HISTORY_CAPACITY, System.nanoTime());
+        logList = new JList<>(history);
+        logList.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        logList.setPrototypeCellValue(String.format("%10.3fs  %s", 0.0,
+                TableEvent.HUNGRY.describe(Integer.MAX_VALUE)));
+        logList.setVisibleRowCount(10);
+        JScrollPane scrollPane = new JScrollPane(logList);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Status Log"));
+        droppedLabel = new JLabel(" ");
+        JPanel logPanel = new JPanel(new BorderLayout());
+        logPanel.add(scrollPane, BorderLayout.CENTER);
+        logPanel.add(droppedLabel, BorderLayout.SOUTH);
 
         // Create top panel for controls and legend
         JPanel topPanel = new JPanel(new FlowLayout());
@@ -54,15 +103,55 @@ public class DiningPhilosophers extends JFrame {
 
         // Add components to frame
         add(topPanel, BorderLayout.NORTH);
-        philosopherPanel = new PhilosopherPanel();
+        philosopherPanel = new PhilosopherPanel(new PhilosopherPanel.Model() {
+            @Override
+            public Topology topology() {
+                return table.getTopology();
+            }
+
+            @Override
+            public PhilosopherState state(int diner) {
+                return table.getState(diner);
+            }
+
+            @Override
+            public boolean deadlocked(int diner) {
+                return deadlocked[diner];
+            }
+
+            @Override
+            public int holder(int fork) {
+                return table.getForkStrategy().holder(fork);
+            }
+        });
         add(philosopherPanel, BorderLayout.CENTER);
-        add(scrollPane, BorderLayout.SOUTH);
+        add(logPanel, BorderLayout.SOUTH);
+
+        table.setEventLog(events);
+        new Timer(FRAME_MS, e -> drainEvents()).start();
+        table.start(); // Start threads immediately but they'll wait while the table is paused
+
+        monitor = new ContentionMonitor(table, MONITOR_INTERVAL_MS, starvationMillis);
+        monitor.setListener(m -> {
+            String summary = m.summary();
+            int[] cycle = m.getDeadlockedPhilosophers();
+            long[] waits = table.getStats().waitHistogram();
+            SwingUtilities.invokeLater(() -> showMonitor(summary, cycle, waits));
+        });
+        monitor.start();
+    }
 
-        // Initialize philosophers
-        for (int i = 0; i < NUM_PHILOSOPHERS; i++) {
-            philosophers[i] = new Philosopher(i);
-            philosophers[i].start(); // Start threads immediately but they'll wait due to isPaused
+    // Runs on the EDT once per monitor scan
+    private void showMonitor(String summary, int[] cycle, long[] waits) {
+        monitorLabel.setText("Monitor: " + summary);
+        monitorLabel.setForeground(cycle.length > 0 ? Color.RED : Color.BLACK);
+        waitHistogram.setCounts(waits);
+        boolean[] marked = new boolean[table.size()];
+        for (int d : cycle) {
+            marked[d] = true;
         }
+        deadlocked = marked;
+        philosopherPanel.repaint();
     }
 
     private void addLegendItem(JPanel panel, String text, Color color) {
@@ -76,154 +165,264 @@ public class DiningPhilosophers extends JFrame {
     }
 
     private void toggleSimulation() {
-        isPaused = !isPaused;
-        startButton.setText(isPaused ? "Start" : "Stop");
-        logStatus(isPaused ? "Simulation paused\n" : "Simulation resumed\n");
+        boolean paused = !table.isPaused();
+        table.setPaused(paused);
+        startButton.setText(paused ? "Start" : "Stop");
+        stepButton.setEnabled(paused);
+    }
 
-        // Wake up all philosophers to either continue or check pause state
-        synchronized (DiningPhilosophers.this) {
-            notifyAll();
+    // Runs on the EDT once per frame: moves new events into the log view and repaints once
+    private void drainEvents() {
+        JScrollBar bar = ((JScrollPane) logList.getParent().getParent()).getVerticalScrollBar();
+        boolean following = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum();
+        if (events.drain(history, HISTORY_CAPACITY) == 0) {
+            return;
+        }
+        history.publish();
+        if (following) {
+            logList.ensureIndexIsVisible(history.getSize() - 1);
         }
+        if (events.dropped() > 0) {
+            droppedLabel.setText(events.dropped() + " events dropped (UI fell behind)");
+        }
+        philosopherPanel.repaint();
     }
 
-    private void logStatus(String message) {
-        SwingUtilities.invokeLater(() -> {
-            statusArea.append(message);
-            statusArea.setCaretPosition(statusArea.getDocument().getLength());
-        });
+    private void exportLog() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("events.dpev"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try (EventFileWriter writer = new EventFileWriter(chooser.getSelectedFile().toPath())) {
+            history.forEach(writer);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not export log: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
-    private class Philosopher extends Thread {
-        private final int id;
-        private PhilosopherState currentState;
-
-        public Philosopher(int id) {
-            this.id = id;
-            this.currentState = PhilosopherState.THINKING;
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int n = DEFAULT_PHILOSOPHERS;
+        double timeScale = 1.0;
+        boolean headless = false;
+        double duration = Double.NaN;
+        String strategy = ForkStrategy.Kind.NAIVE.name();
+        String topologySpec = "ring";
+        long starvationMillis = DEFAULT_STARVATION_MS;
+        Path eventLog = null;
+        Path traceFile = null;
+        boolean simulate = false;
+        long seed = 1;
+        DiningSimulation.Distribution distribution = DiningSimulation.Distribution.UNIFORM;
+        double thinkMillis = DiningTable.THINK_MIN_MS + DiningTable.DELAY_SPREAD_MS / 2;
+        double eatMillis = DiningTable.EAT_MIN_MS + DiningTable.DELAY_SPREAD_MS / 2;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--n":
+                    n = Integer.parseInt(args[++i]);
+                    break;
+                case "--topology":
+                    topologySpec = args[++i];
+                    break;
+                case "--time-scale":
+                    timeScale = Double.parseDouble(args[++i]);
+                    break;
+                case "--strategy":
+                    strategy = args[++i].toUpperCase();
+                    break;
+                case "--headless":
+                    headless = true;
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(args[++i]);
+                    break;
+                case "--starvation-ms":
+                    starvationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--event-log":
+                    eventLog = Paths.get(args[++i]);
+                    break;
+                case "--trace":
+                    traceFile = Paths.get(args[++i]);
+                    break;
+                case "--simulate":
+                    simulate = true;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--distribution":
+                    distribution = DiningSimulation.Distribution.valueOf(args[++i].toUpperCase());
+                    break;
+                case "--think-ms":
+                    thinkMillis = Double.parseDouble(args[++i]);
+                    break;
+                case "--eat-ms":
+                    eatMillis = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    usage(null);
+            }
         }
 
-        public PhilosopherState getCurrentState() {
-            return currentState;
-        }
+        Topology topology = Topology.parse(topologySpec, n, seed);
 
-        private void checkPaused() throws InterruptedException {
-            synchronized (DiningPhilosophers.this) {
-                while (isPaused) {
-                    DiningPhilosophers.this.wait();
-                }
+        if (simulate) {
+            double virtualSeconds = Double.isNaN(duration) ? 3600 : duration;
+            long thinkNanos = (long) (thinkMillis * timeScale * 1_000_000);
+            long eatNanos = (long) (eatMillis * timeScale * 1_000_000);
+            if (thinkNanos <= 0 && eatNanos <= 0) {
+                // Virtual time would never advance
+                usage("--simulate needs a non-zero --time-scale and --think-ms or --eat-ms");
+            }
+            long pauseNanos = (long) (DiningTable.PICKUP_PAUSE_MS * timeScale * 1_000_000);
+            ForkStrategy.Kind[] kinds = strategy.equals("ALL") ? ForkStrategy.Kind.values()
+                    : new ForkStrategy.Kind[] { ForkStrategy.Kind.valueOf(strategy) };
+            for (ForkStrategy.Kind kind : kinds) {
+                runSimulation(new DiningSimulation(topology, kind, distribution, thinkNanos, eatNanos,
+                        pauseNanos, seed), virtualSeconds);
+            }
+            return;
+        }
+        if (Double.isNaN(duration)) {
+            duration = 10;
+        }
+        if (strategy.equals("ALL")) {
+            if (!headless) {
+                usage("--strategy all needs --headless or --simulate");
+            }
+            if (eventLog != null || traceFile != null) {
+                usage("--event-log and --trace need a single strategy");
             }
         }
 
-        @Override
-        public void run() {
-            try {
-                while (!Thread.interrupted()) {
-                    checkPaused();
-                    think();
-                    checkPaused();
-                    pickUpChopsticks();
-                    checkPaused();
-                    eat();
-                    checkPaused();
-                    putDownChopsticks();
+        if (headless) {
+            if (strategy.equals("ALL")) {
+                for (ForkStrategy.Kind kind : ForkStrategy.Kind.values()) {
+                    runHeadless(new DiningTable(topology, timeScale, kind), duration, starvationMillis, null, null);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            } else {
+                runHeadless(new DiningTable(topology, timeScale, ForkStrategy.Kind.valueOf(strategy)), duration,
+                        starvationMillis, eventLog, traceFile);
             }
+            return;
         }
 
-        private void think() throws InterruptedException {
-            currentState = PhilosopherState.THINKING;
-            logStatus("Philosopher " + id + " is thinking\n");
-            philosopherPanel.repaint();
-            Thread.sleep((long) (Math.random() * 5000 + 5000));
-        }
-
-        private void pickUpChopsticks() throws InterruptedException {
-            currentState = PhilosopherState.HUNGRY;
-            logStatus("Philosopher " + id + " is hungry and waiting for chopsticks\n");
-            philosopherPanel.repaint();
-
-            chopsticks[id].acquire();
-            logStatus("Philosopher " + id + " picked up left chopstick\n");
-            Thread.sleep(2000);
-
-            chopsticks[(id + 1) % NUM_PHILOSOPHERS].acquire();
-            logStatus("Philosopher " + id + " picked up right chopstick\n");
+        ForkStrategy.Kind kind = ForkStrategy.Kind.valueOf(strategy);
+        DiningTable table = new DiningTable(topology, timeScale, kind);
+        TraceRecorder trace = traceFile == null ? null : new TraceRecorder(traceFile, topology, kind);
+        if (trace != null) {
+            table.setTrace(trace);
         }
+        long starvation = starvationMillis;
+        SwingUtilities.invokeLater(() -> {
+            DiningPhilosophers frame = new DiningPhilosophers(table, starvation);
+            if (trace != null) {
+                // The trace is only complete once every philosopher has stopped writing
+                frame.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        try {
+                            table.stop();
+                            trace.close();
+                        } catch (InterruptedException | IOException ex) {
+                            System.err.println("Could not finish trace: " + ex.getMessage());
+                        }
+                    }
+                });
+            }
+            frame.setVisible(true);
+        });
+    }
 
-        private void eat() throws InterruptedException {
-            currentState = PhilosopherState.EATING;
-            logStatus("Philosopher " + id + " is eating\n");
-            philosopherPanel.repaint();
-            Thread.sleep((long) (Math.random() * 5000 + 5000));
+    private static void usage(String problem) {
+        if (problem != null) {
+            System.err.println(problem);
         }
+        System.err.println("Usage: java DiningPhilosophers [--n N] [--topology SPEC] [--time-scale S]"
+                + " [--strategy NAME|all] [--headless] [--duration SECONDS]"
+                + " [--starvation-ms MS] [--event-log FILE] [--trace FILE] [--simulate] [--seed S]"
+                + " [--distribution uniform|exponential|constant] [--think-ms MEAN] [--eat-ms MEAN]");
+        System.exit(1);
+    }
 
-        private void putDownChopsticks() {
-            chopsticks[id].release();
-            chopsticks[(id + 1) % NUM_PHILOSOPHERS].release();
-            logStatus("Philosopher " + id + " put down chopsticks\n");
-        }
+    // Runs a simulation for the given virtual time and prints the same report as a headless
+    // threaded run, plus how fast the simulator itself went
+    private static void runSimulation(DiningSimulation sim, double virtualSeconds) {
+        long start = System.nanoTime();
+        sim.run((long) (virtualSeconds * 1e9));
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        TableStats stats = sim.getStats();
+
+        System.out.printf("%-12s %s: %s%n", sim.getKind(), sim.getTopology().description,
+                stats.report(sim.now() / 1e9));
+        System.out.printf("%-12s simulated %.0fs in %.2fs: %d events, %.2fM meals/s of wall time%s%n", "",
+                sim.now() / 1e9, wallSeconds, sim.events(), stats.totalMeals() / wallSeconds / 1e6,
+                sim.deadlocked() ? ", DEADLOCK (every philosopher waiting on a fork)" : "");
     }
 
-    private class PhilosopherPanel extends JPanel {
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int centerX = getWidth() / 2;
-            int centerY = getHeight() / 2;
-            int radius = Math.min(centerX, centerY) - 100;
-
-            // Draw table
-            g2d.setColor(Color.GRAY);
-            g2d.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
-
-            // Draw philosophers and chopsticks
-            for (int i = 0; i < NUM_PHILOSOPHERS; i++) {
-                double angle = i * 2 * Math.PI / NUM_PHILOSOPHERS;
-                int x = (int) (centerX + radius * Math.cos(angle));
-                int y = (int) (centerY + radius * Math.sin(angle));
-
-                // Draw philosopher
-                if (philosophers[i] != null) {
-                    switch (philosophers[i].getCurrentState()) {
-                        case THINKING:
-                            g2d.setColor(Color.BLUE);
-                            break;
-                        case HUNGRY:
-                            g2d.setColor(Color.RED);
-                            break;
-                        case EATING:
-                            g2d.setColor(Color.GREEN);
-                            break;
+    // Runs the table with no UI for the given time and prints its statistics, plus the
+    // monitor's verdict on deadlock and starvation. With an event file, a drain thread
+    // streams the event log to it for the whole run. With a trace file, the philosophers
+    // record into a TraceRecorder that is closed once they have stopped.
+    private static void runHeadless(DiningTable table, double seconds, long starvationMillis, Path eventFile,
+            Path traceFile) throws InterruptedException, IOException {
+        ContentionMonitor monitor = new ContentionMonitor(table, MONITOR_INTERVAL_MS, starvationMillis);
+        EventLog events = null;
+        EventFileWriter writer = null;
+        Thread drainer = null;
+        if (eventFile != null) {
+            // Larger ring than the UI uses: the writer shares the CPU with every philosopher
+            EventLog log = new EventLog(EVENT_LOG_CAPACITY << 4);
+            EventFileWriter out = new EventFileWriter(eventFile);
+            table.setEventLog(log);
+            drainer = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (log.drain(out, Integer.MAX_VALUE) == 0) {
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
                     }
-                } else {
-                    g2d.setColor(Color.GRAY);
                 }
+            }, "event-log-writer");
+            drainer.start();
+            events = log;
+            writer = out;
+        }
 
-                g2d.fillOval(x - 20, y - 20, 40, 40);
-                g2d.setColor(Color.BLACK);
-                g2d.drawString("P" + i, x - 5, y + 5);
-
-                // Draw chopstick
-                double stickAngle = (i + 0.5) * 2 * Math.PI / NUM_PHILOSOPHERS;
-                int x1 = (int) (centerX + (radius - 40) * Math.cos(stickAngle));
-                int y1 = (int) (centerY + (radius - 40) * Math.sin(stickAngle));
-                int x2 = (int) (centerX + (radius + 40) * Math.cos(stickAngle));
-                int y2 = (int) (centerY + (radius + 40) * Math.sin(stickAngle));
-                g2d.setColor(Color.BLACK);
-                g2d.drawLine(x1, y1, x2, y2);
-            }
+        TraceRecorder trace = null;
+        if (traceFile != null) {
+            trace = new TraceRecorder(traceFile, table.getTopology(), table.getStrategyKind());
+            table.setTrace(trace);
         }
-    }
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            DiningPhilosophers frame = new DiningPhilosophers();
-            frame.setVisible(true);
-        });
+        table.start();
+        long start = System.nanoTime();
+        table.setPaused(false);
+        monitor.start();
+        Thread.sleep((long) (seconds * 1000));
+        String report = table.getStats().report((System.nanoTime() - start) / 1e9);
+        monitor.stop();
+        monitor.scan();
+        String verdict = monitor.summary();
+        table.stop();
+
+        System.out.printf("%-12s %s: %s%n", table.getStrategyKind(), table.getTopology().description, report);
+        System.out.printf("%-12s monitor: %s%n", "", verdict);
+        if (writer != null) {
+            drainer.interrupt();
+            drainer.join();
+            events.drain(writer, Integer.MAX_VALUE);
+            writer.close();
+            System.out.printf("%-12s event log: %d events written to %s, %d dropped%n", "",
+                    writer.written(), eventFile, events.dropped());
+        }
+        if (trace != null) {
+            trace.close();
+            System.out.printf("%-12s trace: %d chunks written to %s%n", "", trace.chunksUsed(), traceFile);
+        }
     }
-}
\ No newline at end of file
+}
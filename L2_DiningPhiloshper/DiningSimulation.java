@@ -0,0 +1,227 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Discrete-event version of DiningTable: one thread, a virtual clock and a priority queue
+// of timestamped events instead of real threads and sleeps. It runs the same
+// thinking -> hungry -> eating cycle over the same Topology, with each ForkStrategy.Kind
+// modelled by SimulatedForks, and the same seed always produces the same run.
+// Meals and waits go into a TableStats in virtual nanoseconds, so reports read exactly
+// like the threaded ones.
+final class DiningSimulation {
+    // Think and eat times; every distribution is parameterised by its mean
+    enum Distribution {
+        // Uniform over [2/3, 4/3] of the mean: 5-10 s for the threaded table's 7.5 s
+        UNIFORM,
+        EXPONENTIAL,
+        CONSTANT;
+
+        long sample(SplittableRandom random, long mean) {
+            switch (this) {
+                case UNIFORM:
+                    return mean * 2 / 3 + (long) (random.nextDouble() * (mean * 2 / 3));
+                case EXPONENTIAL:
+                    return (long) (-Math.log(1 - random.nextDouble()) * mean);
+                default:
+                    return mean;
+            }
+        }
+    }
+
+    // Event types, stored in the low bits of the queue payload
+    private static final int THINK_DONE = 0;
+    private static final int EAT_DONE = 1;
+    private static final int TIMER = 2;
+    private static final int TYPE_BITS = 2;
+
+    private final Topology topology;
+    private final ForkStrategy.Kind kind;
+    private final SimulatedForks forks;
+    private final Distribution distribution;
+    private final long thinkMeanNanos;
+    private final long eatMeanNanos;
+    private final SplittableRandom random;
+    private final EventQueue queue;
+    private final TableStats stats;
+    private final PhilosopherState[] states;
+    private final long[] hungrySince;
+    private long now;
+    private long events;
+    private boolean deadlocked;
+
+    DiningSimulation(Topology topology, ForkStrategy.Kind kind, Distribution distribution,
+            long thinkMeanNanos, long eatMeanNanos, long pickupPauseNanos, long seed) {
+        if (thinkMeanNanos <= 0 && eatMeanNanos <= 0) {
+            throw new IllegalArgumentException("Think and eat times are both zero; virtual time would never advance");
+        }
+        this.topology = topology;
+        this.kind = kind;
+        this.distribution = distribution;
+        this.thinkMeanNanos = thinkMeanNanos;
+        this.eatMeanNanos = eatMeanNanos;
+        random = new SplittableRandom(seed);
+        int n = topology.dinerCount;
+        queue = new EventQueue(n + 1);
+        stats = new TableStats(n);
+        states = new PhilosopherState[n];
+        hungrySince = new long[n];
+        forks = SimulatedForks.create(kind, this, topology, pickupPauseNanos);
+        for (int d = 0; d < n; d++) {
+            states[d] = PhilosopherState.THINKING;
+            schedule(d, THINK_DONE, distribution.sample(random, thinkMeanNanos));
+        }
+    }
+
+    // Processes events up to the given virtual time. Stops early, with deadlocked() set,
+    // if every diner is waiting on a fork and nothing is left to happen.
+    void run(long untilNanos) {
+        while (!queue.isEmpty() && queue.peekTime() <= untilNanos) {
+            now = queue.peekTime();
+            int payload = queue.poll();
+            int diner = payload >>> TYPE_BITS;
+            events++;
+            switch (payload & ((1 << TYPE_BITS) - 1)) {
+                case THINK_DONE:
+                    states[diner] = PhilosopherState.HUNGRY;
+                    hungrySince[diner] = now;
+                    forks.request(diner);
+                    break;
+                case EAT_DONE:
+                    states[diner] = PhilosopherState.THINKING;
+                    forks.release(diner);
+                    schedule(diner, THINK_DONE, distribution.sample(random, thinkMeanNanos));
+                    break;
+                default:
+                    forks.timer(diner);
+                    break;
+            }
+        }
+        if (queue.isEmpty()) {
+            deadlocked = true;
+        } else {
+            now = untilNanos;
+        }
+    }
+
+    // Called by the fork model once a diner holds all of its forks
+    void acquired(int diner) {
+        states[diner] = PhilosopherState.EATING;
+        stats.recordMeal(diner, now - hungrySince[diner]);
+        schedule(diner, EAT_DONE, distribution.sample(random, eatMeanNanos));
+    }
+
+    // Wakes the fork model for this diner after a delay (back-off, pick-up pause)
+    void scheduleTimer(int diner, long delayNanos) {
+        schedule(diner, TIMER, delayNanos);
+    }
+
+    long hungrySince(int diner) {
+        return hungrySince[diner];
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    private void schedule(int diner, int type, long delayNanos) {
+        queue.add(now + delayNanos, (diner << TYPE_BITS) | type);
+    }
+
+    long now() {
+        return now;
+    }
+
+    long events() {
+        return events;
+    }
+
+    boolean deadlocked() {
+        return deadlocked;
+    }
+
+    PhilosopherState getState(int diner) {
+        return states[diner];
+    }
+
+    TableStats getStats() {
+        return stats;
+    }
+
+    ForkStrategy.Kind getKind() {
+        return kind;
+    }
+
+    Topology getTopology() {
+        return topology;
+    }
+
+    // 4-ary min-heap on time over primitive arrays; shallower than a binary heap and each
+    // node's children share a cache line. Ties pop in an order fixed by the sequence of
+    // operations, so runs stay reproducible.
+    private static final class EventQueue {
+        private long[] times;
+        private int[] payloads;
+        private int size;
+
+        EventQueue(int capacity) {
+            times = new long[capacity];
+            payloads = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekTime() {
+            return times[0];
+        }
+
+        void add(long time, int payload) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                payloads = Arrays.copyOf(payloads, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 2;
+                if (times[parent] <= time) {
+                    break;
+                }
+                times[i] = times[parent];
+                payloads[i] = payloads[parent];
+                i = parent;
+            }
+            times[i] = time;
+            payloads[i] = payload;
+        }
+
+        int poll() {
+            int result = payloads[0];
+            size--;
+            long time = times[size];
+            int payload = payloads[size];
+            int i = 0;
+            while (true) {
+                int first = 4 * i + 1;
+                if (first >= size) {
+                    break;
+                }
+                int child = first;
+                int last = Math.min(first + 4, size);
+                for (int c = first + 1; c < last; c++) {
+                    if (times[c] < times[child]) {
+                        child = c;
+                    }
+                }
+                if (times[child] >= time) {
+                    break;
+                }
+                times[i] = times[child];
+                payloads[i] = payloads[child];
+                i = child;
+            }
+            times[i] = time;
+            payloads[i] = payload;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The simulation itself, independent of any UI: philosophers on virtual threads sharing the
+// forks of a Topology (by default a ring of N chopsticks), picked up through a pluggable
+// ForkStrategy. All delays are multiplied by
+// timeScale; 0 removes them entirely so the table runs at full machine speed.
+public class DiningTable {
+    // Base delays in milliseconds at timeScale 1; DiningSimulation defaults to the same
+    static final double THINK_MIN_MS = 5000;
+    static final double EAT_MIN_MS = 5000;
+    static final double DELAY_SPREAD_MS = 5000;
+    static final double PICKUP_PAUSE_MS = 2000;
+
+    private final int size;
+    private final double timeScale;
+    private final Topology topology;
+    private final ForkStrategy.Kind strategyKind;
+    private final ForkStrategy chopsticks;
+    private final TableStats stats;
+    // System.nanoTime() when each philosopher last became hungry; read by the monitor
+    private final AtomicLongArray hungrySince;
+    private final Philosopher[] philosophers;
+    private final Thread[] threads;
+    // Where transitions are recorded; null (the headless default) records nothing
+    private volatile EventLog events;
+    // Binary trace of transitions and single forks; set before start(), or null
+    private TraceRecorder trace;
+    private final PauseGate gate = new PauseGate(true);
+
+    public DiningTable(int size, double timeScale, ForkStrategy.Kind strategyKind) {
+        this(Topology.ring(size), timeScale, strategyKind);
+    }
+
+    DiningTable(Topology topology, double timeScale, ForkStrategy.Kind strategyKind) {
+        if (topology.dinerCount < 2) {
+            throw new IllegalArgumentException("Need at least 2 philosophers");
+        }
+        this.size = topology.dinerCount;
+        this.timeScale = timeScale;
+        this.strategyKind = strategyKind;
+        this.topology = topology;
+        chopsticks = strategyKind.create(topology, scaledNanos(PICKUP_PAUSE_MS));
+        stats = new TableStats(size);
+        hungrySince = new AtomicLongArray(size);
+        philosophers = new Philosopher[size];
+        threads = new Thread[size];
+        for (int i = 0; i < size; i++) {
+            philosophers[i] = new Philosopher(i);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public PhilosopherState getState(int philosopher) {
+        return philosophers[philosopher].currentState;
+    }
+
+    public long getHungrySince(int philosopher) {
+        return hungrySince.get(philosopher);
+    }
+
+    Topology getTopology() {
+        return topology;
+    }
+
+    ForkStrategy getForkStrategy() {
+        return chopsticks;
+    }
+
+    public ForkStrategy.Kind getStrategyKind() {
+        return strategyKind;
+    }
+
+    public TableStats getStats() {
+        return stats;
+    }
+
+    public boolean isPaused() {
+        return gate.isPaused();
+    }
+
+    void setEventLog(EventLog events) {
+        this.events = events;
+    }
+
+    // Only before start(); the recorder must outlive stop()
+    void setTrace(TraceRecorder trace) {
+        this.trace = trace;
+        chopsticks.setTrace(trace);
+    }
+
+    // Starts one virtual thread per philosopher; they wait while the table is paused
+    public void start() {
+        for (int i = 0; i < size; i++) {
+            threads[i] = Thread.ofVirtual().name("philosopher-" + i).start(philosophers[i]);
+        }
+    }
+
+    public void stop() throws InterruptedException {
+        for (Thread thread : threads) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+        for (Thread thread : threads) {
+            if (thread != null) {
+                thread.join();
+            }
+        }
+    }
+
+    public void setPaused(boolean paused) {
+        if (paused) {
+            gate.pause();
+        } else {
+            gate.resume();
+        }
+        record(-1, paused ? TableEvent.PAUSED : TableEvent.RESUMED);
+    }
+
+    // While paused, lets every philosopher run one more full cycle
+    public void step() {
+        gate.step();
+        record(-1, TableEvent.STEPPED);
+    }
+
+    private void record(int philosopher, TableEvent event) {
+        EventLog log = events;
+        if (log != null) {
+            log.record(philosopher, event);
+        }
+        if (trace != null) {
+            trace.record(philosopher, event);
+        }
+    }
+
+    private long scaledNanos(double millis) {
+        return (long) (millis * timeScale * 1_000_000);
+    }
+
+    private void sleepScaled(double millis) throws InterruptedException {
+        long nanos = scaledNanos(millis);
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } else {
+            // Zero-delay mode: still let other virtual threads onto the carrier, otherwise
+            // a philosopher that never blocks would eat forever
+            Thread.yield();
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private class Philosopher implements Runnable {
+        private final int id;
+        private volatile PhilosopherState currentState;
+        // Last step count seen from the gate, and whether the current cycle runs under a step
+        private long step;
+        private boolean stepping;
+
+        Philosopher(int id) {
+            this.id = id;
+            this.currentState = PhilosopherState.THINKING;
+        }
+
+        private void checkPaused(boolean cycleStart) throws InterruptedException {
+            if (cycleStart) {
+                stepping = false;
+            } else if (stepping) {
+                return;
+            }
+            long current = gate.await(step);
+            stepping = current > step;
+            step = current;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.interrupted()) {
+                    checkPaused(true);
+                    think();
+                    checkPaused(false);
+                    pickUpChopsticks();
+                    checkPaused(false);
+                    eat();
+                    checkPaused(false);
+                    putDownChopsticks();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void think() throws InterruptedException {
+            currentState = PhilosopherState.THINKING;
+            record(id, TableEvent.THINKING);
+            sleepScaled(ThreadLocalRandom.current().nextDouble() * DELAY_SPREAD_MS + THINK_MIN_MS);
+        }
+
+        private void pickUpChopsticks() throws InterruptedException {
+            long since = System.nanoTime();
+            hungrySince.lazySet(id, since);
+            currentState = PhilosopherState.HUNGRY;
+            record(id, TableEvent.HUNGRY);
+
+            chopsticks.acquire(id);
+            record(id, TableEvent.ACQUIRED);
+        }
+
+        private void eat() throws InterruptedException {
+            currentState = PhilosopherState.EATING;
+            record(id, TableEvent.EATING);
+            stats.recordMeal(id, System.nanoTime() - hungrySince.get(id));
+            sleepScaled(ThreadLocalRandom.current().nextDouble() * DELAY_SPREAD_MS + EAT_MIN_MS);
+        }
+
+        private void putDownChopsticks() {
+            chopsticks.release(id);
+            record(id, TableEvent.RELEASED);
+        }
+    }
+}
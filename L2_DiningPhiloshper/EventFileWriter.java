@@ -0,0 +1,63 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary export of table events, little-endian:
+//   header: "DPEV" magic, int version (1)
+//   records: long System.nanoTime(), int philosopher (-1 for table-wide), int TableEvent ordinal
+final class EventFileWriter implements EventLog.Sink, Closeable {
+    static final int MAGIC = 0x56455044; // "DPEV" read as a little-endian int
+    static final int VERSION = 1;
+    static final int RECORD_BYTES = 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private long written;
+
+    EventFileWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    @Override
+    public void event(long nanos, int philosopher, TableEvent kind) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        buffer.putLong(nanos).putInt(philosopher).putInt(kind.ordinal());
+        written++;
+    }
+
+    long written() {
+        return written;
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+}
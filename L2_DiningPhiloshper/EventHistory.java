@@ -0,0 +1,73 @@
+import javax.swing.AbstractListModel;
+
+// The most recent events kept for the log view, in primitive arrays. Rows are formatted
+// only when the JList asks for a visible one, so the view costs the same at any history
+// length. Only touched on the event dispatch thread.
+final class EventHistory extends AbstractListModel<String> implements EventLog.Sink {
+    private final long[] times;
+    private final int[] philosophers;
+    private final byte[] kinds;
+    private final long baseNanos;
+    private int start;
+    private int count;
+    private int pendingAdded;
+    private int pendingRemoved;
+
+    EventHistory(int capacity, long baseNanos) {
+        times = new long[capacity];
+        philosophers = new int[capacity];
+        kinds = new byte[capacity];
+        this.baseNanos = baseNanos;
+    }
+
+    // Buffers a drained event; listeners are told once per frame by publish()
+    @Override
+    public void event(long nanos, int philosopher, TableEvent kind) {
+        int slot;
+        if (count == times.length) {
+            slot = start;
+            start = (start + 1) % times.length;
+            pendingRemoved++;
+        } else {
+            slot = (start + count) % times.length;
+            count++;
+        }
+        times[slot] = nanos;
+        philosophers[slot] = philosopher;
+        kinds[slot] = (byte) kind.ordinal();
+        pendingAdded++;
+    }
+
+    // Fires one removal and one addition for everything buffered since the last call
+    void publish() {
+        if (pendingRemoved > 0) {
+            fireIntervalRemoved(this, 0, Math.min(pendingRemoved, times.length) - 1);
+        }
+        if (pendingAdded > 0) {
+            int added = Math.min(pendingAdded, count);
+            fireIntervalAdded(this, count - added, count - 1);
+        }
+        pendingRemoved = 0;
+        pendingAdded = 0;
+    }
+
+    @Override
+    public int getSize() {
+        return count;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        int slot = (start + index) % times.length;
+        return String.format("%10.3fs  %s", (times[slot] - baseNanos) / 1e9,
+                TableEvent.of(kinds[slot]).describe(philosophers[slot]));
+    }
+
+    // Replays the retained history, oldest first
+    void forEach(EventLog.Sink sink) {
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % times.length;
+            sink.event(times[slot], philosophers[slot], TableEvent.of(kinds[slot]));
+        }
+    }
+}
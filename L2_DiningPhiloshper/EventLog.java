@@ -0,0 +1,89 @@
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded multi-producer ring of primitive event records (time, philosopher, kind).
+// Producers claim a sequence number with one getAndIncrement and never block or allocate;
+// when the reader falls behind, the oldest records are overwritten and counted as dropped.
+// Each slot carries the sequence it holds (+1), written last, so the single reader can
+// tell a published record from one still being written or already overwritten.
+final class EventLog {
+    // Receives drained records in order
+    interface Sink {
+        void event(long nanos, int philosopher, TableEvent kind);
+    }
+
+    private final int mask;
+    private final long[] times;
+    private final int[] philosophers;
+    private final byte[] kinds;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private long tail;
+    private long dropped;
+
+    EventLog(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        times = new long[capacity];
+        philosophers = new int[capacity];
+        kinds = new byte[capacity];
+        published = new AtomicLongArray(capacity);
+    }
+
+    // Any thread; philosopher is -1 for table-wide events
+    void record(int philosopher, TableEvent kind) {
+        long sequence = head.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        // Mark the slot in progress before touching it, so a racing reader rejects it
+        published.setOpaque(slot, 0);
+        VarHandle.storeStoreFence();
+        times[slot] = System.nanoTime();
+        philosophers[slot] = philosopher;
+        kinds[slot] = (byte) kind.ordinal();
+        published.setRelease(slot, sequence + 1);
+    }
+
+    // Single reader. Hands every record published since the last drain to the sink,
+    // up to max of them, and returns how many were delivered.
+    int drain(Sink sink, int max) {
+        long end = head.get();
+        if (end - tail > mask + 1) {
+            // Producers lapped us: everything older than one buffer is gone
+            long skip = end - (mask + 1) - tail;
+            dropped += skip;
+            tail += skip;
+        }
+        int delivered = 0;
+        while (tail < end && delivered < max) {
+            int slot = (int) (tail & mask);
+            long before = published.getAcquire(slot);
+            if (before == 0 || before < tail + 1) {
+                break; // claimed but not yet written; pick it up next time
+            }
+            long time = times[slot];
+            int philosopher = philosophers[slot];
+            int kind = kinds[slot];
+            VarHandle.loadLoadFence();
+            if (before != tail + 1 || published.getOpaque(slot) != before) {
+                dropped++; // overwritten under us
+            } else {
+                sink.event(time, philosopher, TableEvent.of(kind));
+                delivered++;
+            }
+            tail++;
+        }
+        return delivered;
+    }
+
+    // Records lost because the reader fell more than a buffer behind
+    long dropped() {
+        return dropped;
+    }
+
+    long recorded() {
+        return head.get();
+    }
+}
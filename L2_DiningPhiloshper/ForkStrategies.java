@@ -0,0 +1,469 @@
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The ForkStrategy implementations. All blocking goes through java.util.concurrent
+// locks rather than monitors, so waiting virtual threads release their carrier.
+final class ForkStrategies {
+    private ForkStrategies() {
+    }
+
+    // Passes fork pickups and put-downs to an optional TraceRecorder. A put-down is
+    // recorded before the fork is actually free, so a replay never shows it held twice.
+    private abstract static class Traced implements ForkStrategy {
+        // Plain field: set before the philosopher threads start, which publishes it
+        private TraceRecorder trace;
+
+        @Override
+        public void setTrace(TraceRecorder trace) {
+            this.trace = trace;
+        }
+
+        void traceTaken(int diner, int fork) {
+            if (trace != null) {
+                trace.forkTaken(diner, fork);
+            }
+        }
+
+        void traceReleased(int diner, int fork) {
+            if (trace != null) {
+                trace.forkReleased(diner, fork);
+            }
+        }
+    }
+
+    // Tracks fork holders for the strategies whose primitives don't know their owner
+    private abstract static class Base extends Traced {
+        final Topology topology;
+        final AtomicIntegerArray holders;
+
+        Base(Topology topology) {
+            this.topology = topology;
+            holders = new AtomicIntegerArray(topology.forkCount);
+            for (int f = 0; f < topology.forkCount; f++) {
+                holders.set(f, -1);
+            }
+        }
+
+        @Override
+        public int holder(int fork) {
+            return holders.get(fork);
+        }
+    }
+
+    // One semaphore per fork, acquired in a fixed per-diner order
+    private abstract static class SemaphoreForks extends Base {
+        final Semaphore[] forks;
+        private final AtomicIntegerArray waiting;
+
+        SemaphoreForks(Topology topology) {
+            super(topology);
+            forks = new Semaphore[topology.forkCount];
+            for (int f = 0; f < forks.length; f++) {
+                forks[f] = new Semaphore(1);
+            }
+            waiting = new AtomicIntegerArray(topology.dinerCount);
+            for (int d = 0; d < topology.dinerCount; d++) {
+                waiting.set(d, -1);
+            }
+        }
+
+        void take(int diner, int fork) throws InterruptedException {
+            if (!forks[fork].tryAcquire()) {
+                waiting.lazySet(diner, fork);
+                try {
+                    forks[fork].acquire();
+                } finally {
+                    waiting.lazySet(diner, -1);
+                }
+            }
+            holders.lazySet(fork, diner);
+            traceTaken(diner, fork);
+        }
+
+        @Override
+        public int waitingFor(int diner) {
+            return waiting.get(diner);
+        }
+
+        void put(int diner, int fork) {
+            traceReleased(diner, fork);
+            holders.lazySet(fork, -1);
+            forks[fork].release();
+        }
+
+        @Override
+        public void release(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                put(diner, f);
+            }
+        }
+    }
+
+    static final class Naive extends SemaphoreForks {
+        private final long pickupPauseNanos;
+
+        Naive(Topology topology, long pickupPauseNanos) {
+            super(topology);
+            this.pickupPauseNanos = pickupPauseNanos;
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            int[] forks = topology.forksOf[diner];
+            int taken = 0;
+            try {
+                for (int f : forks) {
+                    take(diner, f);
+                    taken++;
+                    if (taken < forks.length && pickupPauseNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(pickupPauseNanos);
+                    }
+                }
+            } catch (InterruptedException e) {
+                for (int i = 0; i < taken; i++) {
+                    put(diner, forks[i]);
+                }
+                throw e;
+            }
+        }
+    }
+
+    static final class Ordered extends SemaphoreForks {
+        private final int[][] sortedForks;
+
+        Ordered(Topology topology) {
+            super(topology);
+            sortedForks = sorted(topology);
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            int[] forks = sortedForks[diner];
+            int taken = 0;
+            try {
+                for (int f : forks) {
+                    take(diner, f);
+                    taken++;
+                }
+            } catch (InterruptedException e) {
+                for (int i = 0; i < taken; i++) {
+                    put(diner, forks[i]);
+                }
+                throw e;
+            }
+        }
+    }
+
+    static final class Waiter extends Base {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition[] turn;
+        private final boolean[] busy;
+
+        Waiter(Topology topology) {
+            super(topology);
+            busy = new boolean[topology.forkCount];
+            turn = new Condition[topology.dinerCount];
+            for (int d = 0; d < turn.length; d++) {
+                turn[d] = lock.newCondition();
+            }
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (!allFree(diner)) {
+                    turn[diner].await();
+                }
+                for (int f : topology.forksOf[diner]) {
+                    busy[f] = true;
+                    holders.lazySet(f, diner);
+                    traceTaken(diner, f);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean allFree(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                if (busy[f]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void release(int diner) {
+            lock.lock();
+            try {
+                for (int f : topology.forksOf[diner]) {
+                    traceReleased(diner, f);
+                    busy[f] = false;
+                    holders.lazySet(f, -1);
+                    // Only diners sharing a freed fork can have become eligible
+                    for (int other : topology.dinersOf[f]) {
+                        if (other != diner) {
+                            turn[other].signal();
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Every fork starts dirty with the lower-numbered of its diners, which makes the
+    // precedence graph acyclic. A diner waiting for a fork takes it as soon as it is dirty
+    // and its owner is not eating; a received fork stays clean (and is kept) until the
+    // receiver has eaten. Diners lock all their forks in id order to start eating and to
+    // release, so an owner's eating flag is stable under any one of its fork locks.
+    static final class ChandyMisra extends Traced {
+        private final Topology topology;
+        private final int[][] sortedForks;
+        private final ReentrantLock[] locks;
+        private final Condition[] changed;
+        private final int[] owner;
+        private final boolean[] dirty;
+        private final boolean[] eating;
+        private final AtomicIntegerArray waiting;
+
+        ChandyMisra(Topology topology) {
+            this.topology = topology;
+            sortedForks = sorted(topology);
+            int forks = topology.forkCount;
+            locks = new ReentrantLock[forks];
+            changed = new Condition[forks];
+            owner = new int[forks];
+            dirty = new boolean[forks];
+            eating = new boolean[topology.dinerCount];
+            waiting = new AtomicIntegerArray(topology.dinerCount);
+            for (int d = 0; d < topology.dinerCount; d++) {
+                waiting.set(d, -1);
+            }
+            for (int f = 0; f < forks; f++) {
+                locks[f] = new ReentrantLock();
+                changed[f] = locks[f].newCondition();
+                owner[f] = Integer.MAX_VALUE;
+                for (int d : topology.dinersOf[f]) {
+                    owner[f] = Math.min(owner[f], d);
+                }
+                dirty[f] = true;
+            }
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            int[] forks = sortedForks[diner];
+            while (true) {
+                for (int f : forks) {
+                    locks[f].lockInterruptibly();
+                    try {
+                        while (owner[f] != diner) {
+                            if (dirty[f] && !eating[owner[f]]) {
+                                owner[f] = diner;
+                                dirty[f] = false;
+                            } else {
+                                waiting.lazySet(diner, f);
+                                changed[f].await();
+                            }
+                        }
+                    } finally {
+                        waiting.lazySet(diner, -1);
+                        locks[f].unlock();
+                    }
+                }
+
+                // A dirty fork we already had may have been taken meanwhile; check under all locks
+                lockAll(forks);
+                try {
+                    if (ownsAll(diner, forks)) {
+                        eating[diner] = true;
+                        // Owning a fork is not holding it; trace only the forks eaten with
+                        for (int f : forks) {
+                            traceTaken(diner, f);
+                        }
+                        return;
+                    }
+                } finally {
+                    unlockAll(forks);
+                }
+            }
+        }
+
+        private boolean ownsAll(int diner, int[] forks) {
+            for (int f : forks) {
+                if (owner[f] != diner) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void release(int diner) {
+            int[] forks = sortedForks[diner];
+            lockAll(forks);
+            try {
+                eating[diner] = false;
+                for (int f : forks) {
+                    traceReleased(diner, f);
+                    dirty[f] = true;
+                    changed[f].signalAll();
+                }
+            } finally {
+                unlockAll(forks);
+            }
+        }
+
+        @Override
+        public int holder(int fork) {
+            // Racy read is fine for monitoring
+            return owner[fork];
+        }
+
+        @Override
+        public int waitingFor(int diner) {
+            return waiting.get(diner);
+        }
+
+        private void lockAll(int[] forks) {
+            for (int f : forks) {
+                locks[f].lock();
+            }
+        }
+
+        private void unlockAll(int[] forks) {
+            for (int i = forks.length - 1; i >= 0; i--) {
+                locks[forks[i]].unlock();
+            }
+        }
+    }
+
+    static final class Backoff extends Base {
+        private final Semaphore[] forks;
+
+        Backoff(Topology topology) {
+            super(topology);
+            forks = new Semaphore[topology.forkCount];
+            for (int f = 0; f < forks.length; f++) {
+                forks[f] = new Semaphore(1);
+            }
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            int[] mine = topology.forksOf[diner];
+            long backoff = MIN_BACKOFF_NANOS;
+            while (true) {
+                int taken = 0;
+                while (taken < mine.length && forks[mine[taken]].tryAcquire()) {
+                    holders.lazySet(mine[taken], diner);
+                    traceTaken(diner, mine[taken]);
+                    taken++;
+                }
+                if (taken == mine.length) {
+                    return;
+                }
+                for (int i = 0; i < taken; i++) {
+                    traceReleased(diner, mine[i]);
+                    holders.lazySet(mine[i], -1);
+                    forks[mine[i]].release();
+                }
+                backoff = backOff(backoff);
+            }
+        }
+
+        @Override
+        public void release(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                traceReleased(diner, f);
+                holders.lazySet(f, -1);
+                forks[f].release();
+            }
+        }
+    }
+
+    // owners[f] is 0 when free, otherwise diner + 1
+    static final class CasTable extends Traced {
+        private static final int SPINS = 32;
+
+        private final Topology topology;
+        private final int[][] sortedForks;
+        private final AtomicIntegerArray owners;
+
+        CasTable(Topology topology) {
+            this.topology = topology;
+            sortedForks = sorted(topology);
+            owners = new AtomicIntegerArray(topology.forkCount);
+        }
+
+        @Override
+        public void acquire(int diner) throws InterruptedException {
+            int[] mine = sortedForks[diner];
+            long backoff = MIN_BACKOFF_NANOS;
+            int attempts = 0;
+            while (true) {
+                int taken = 0;
+                while (taken < mine.length && owners.compareAndSet(mine[taken], 0, diner + 1)) {
+                    traceTaken(diner, mine[taken]);
+                    taken++;
+                }
+                if (taken == mine.length) {
+                    return;
+                }
+                for (int i = 0; i < taken; i++) {
+                    traceReleased(diner, mine[i]);
+                    owners.set(mine[i], 0);
+                }
+                if (++attempts < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    backoff = backOff(backoff);
+                }
+            }
+        }
+
+        @Override
+        public void release(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                traceReleased(diner, f);
+                owners.set(f, 0);
+            }
+        }
+
+        @Override
+        public int holder(int fork) {
+            return owners.get(fork) - 1;
+        }
+    }
+
+    private static final long MIN_BACKOFF_NANOS = 1_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    // Parks for a random time up to the current cap and returns the doubled cap
+    private static long backOff(long cap) throws InterruptedException {
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(cap) + 1);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return Math.min(cap * 2, MAX_BACKOFF_NANOS);
+    }
+
+    private static int[][] sorted(Topology topology) {
+        int[][] result = new int[topology.dinerCount][];
+        for (int d = 0; d < result.length; d++) {
+            result[d] = topology.forksOf[d].clone();
+            Arrays.sort(result[d]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+// How a diner gets hold of all of its forks. acquire() blocks until the diner holds every
+// fork in topology.forksOf[diner]; release() puts them all back.
+interface ForkStrategy {
+    // waitingFor() result for strategies that don't track which fork a diner is blocked on
+    int UNKNOWN = -2;
+
+    void acquire(int diner) throws InterruptedException;
+
+    void release(int diner);
+
+    // Diner currently holding the fork, or -1
+    int holder(int fork);
+
+    // Fork the diner is blocked on right now, -1 if none, or UNKNOWN. Lets the contention
+    // monitor ignore forks a diner hasn't asked for yet, which matters once a diner needs
+    // more than two.
+    default int waitingFor(int diner) {
+        return UNKNOWN;
+    }
+
+    // Where single-fork pickups and put-downs are recorded; set before any diner starts
+    default void setTrace(TraceRecorder trace) {
+    }
+
+    enum Kind {
+        // Left then right with a pause in between, as in the original lab: deadlocks
+        NAIVE,
+        // Forks taken in ascending id order, which breaks the circular wait
+        ORDERED,
+        // One arbitrator grants all of a diner's forks at once
+        WAITER,
+        // Chandy-Misra hygienic forks: dirty forks are handed over on request
+        CHANDY_MISRA,
+        // tryAcquire every fork, otherwise put them back and back off for a random time
+        BACKOFF,
+        // Lock-free fork table: compareAndSet each fork's owner, roll back on conflict
+        CAS;
+
+        ForkStrategy create(Topology topology, long pickupPauseNanos) {
+            switch (this) {
+                case NAIVE:
+                    return new ForkStrategies.Naive(topology, pickupPauseNanos);
+                case ORDERED:
+                    return new ForkStrategies.Ordered(topology);
+                case WAITER:
+                    return new ForkStrategies.Waiter(topology);
+                case CHANDY_MISRA:
+                    return new ForkStrategies.ChandyMisra(topology);
+                case BACKOFF:
+                    return new ForkStrategies.Backoff(topology);
+                case CAS:
+                    return new ForkStrategies.CasTable(topology);
+                default:
+                    throw new IllegalArgumentException("Unknown strategy " + this);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.concurrent.Phaser;
+
+// Pause/resume for the philosophers. While running, a check is one volatile read, so
+// philosophers never meet on a shared monitor. Paused philosophers park on a Phaser
+// (LockSupport underneath, so virtual threads release their carrier); every resume or
+// step advances the phase and wakes them to re-check.
+//
+// step() lets each paused philosopher run on to the end of its current think / pick up /
+// eat / put down cycle (or one whole cycle if it was paused at the top), then stop again.
+final class PauseGate {
+    private final Phaser phaser = new Phaser(1);
+    private volatile boolean paused;
+    private volatile long steps;
+
+    PauseGate(boolean paused) {
+        this.paused = paused;
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    void pause() {
+        paused = true;
+    }
+
+    void resume() {
+        paused = false;
+        phaser.arrive();
+    }
+
+    // Only meaningful while paused; called from one controlling thread
+    synchronized void step() {
+        steps++;
+        phaser.arrive();
+    }
+
+    // Returns at once while running. While paused, parks until resumed or stepped.
+    // lastStep is the value this caller got from its previous call; the result is greater
+    // than lastStep when the caller was let through by step() rather than by resume().
+    long await(long lastStep) throws InterruptedException {
+        if (!paused) {
+            return steps;
+        }
+        while (true) {
+            int phase = phaser.getPhase();
+            long current = steps;
+            if (!paused || current > lastStep) {
+                // A philosopher that missed steps while busy still runs only one cycle
+                return current;
+            }
+            phaser.awaitAdvanceInterruptibly(phase);
+        }
+    }
+}
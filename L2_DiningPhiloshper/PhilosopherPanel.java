@@ -0,0 +1,125 @@
+import java.awt.*;
+import javax.swing.*;
+
+// Draws the table: philosophers round a circle coloured by state, and for a ring the
+// chopstick between each pair of neighbours. A chopstick someone holds is drawn thick and
+// tilted towards the holder; for other topologies the conflict edges of held forks are
+// drawn thick. Shared by the live view and TraceReplay, which differ only in the Model.
+class PhilosopherPanel extends JPanel {
+    // Above this many philosophers the panel draws plain dots without labels or chopsticks
+    static final int DETAILED_DRAW_LIMIT = 64;
+    private static final Stroke THIN = new BasicStroke(1);
+    private static final Stroke THICK = new BasicStroke(4);
+
+    // What the panel shows; read on the EDT at every repaint
+    interface Model {
+        Topology topology();
+
+        PhilosopherState state(int diner);
+
+        // Whether the diner is part of a detected deadlock cycle
+        boolean deadlocked(int diner);
+
+        // Diner holding the fork, or -1
+        int holder(int fork);
+    }
+
+    private final Model model;
+
+    PhilosopherPanel(Model model) {
+        this.model = model;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int centerX = getWidth() / 2;
+        int centerY = getHeight() / 2;
+        int radius = Math.min(centerX, centerY) - 100;
+
+        // Draw table
+        g2d.setColor(Color.GRAY);
+        g2d.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+
+        Topology topology = model.topology();
+        int n = topology.dinerCount;
+        boolean detailed = n <= DETAILED_DRAW_LIMIT;
+        int dot = detailed ? 20 : Math.max(1, Math.min(8, (int) (Math.PI * radius / n)));
+
+        // Other topologies have no neighbour chopsticks; draw who conflicts with whom
+        if (detailed && !topology.ring) {
+            g2d.setColor(Color.DARK_GRAY);
+            for (int f = 0; f < topology.forkCount; f++) {
+                int[] diners = topology.dinersOf[f];
+                g2d.setStroke(model.holder(f) >= 0 ? THICK : THIN);
+                for (int a = 0; a < diners.length; a++) {
+                    for (int b = a + 1; b < diners.length; b++) {
+                        double angleA = diners[a] * 2 * Math.PI / n;
+                        double angleB = diners[b] * 2 * Math.PI / n;
+                        g2d.drawLine((int) (centerX + radius * Math.cos(angleA)),
+                                (int) (centerY + radius * Math.sin(angleA)),
+                                (int) (centerX + radius * Math.cos(angleB)),
+                                (int) (centerY + radius * Math.sin(angleB)));
+                    }
+                }
+            }
+            g2d.setStroke(THIN);
+        }
+
+        // Draw philosophers and chopsticks
+        for (int i = 0; i < n; i++) {
+            double angle = i * 2 * Math.PI / n;
+            int x = (int) (centerX + radius * Math.cos(angle));
+            int y = (int) (centerY + radius * Math.sin(angle));
+
+            // Draw philosopher
+            switch (model.state(i)) {
+                case THINKING:
+                    g2d.setColor(Color.BLUE);
+                    break;
+                case HUNGRY:
+                    g2d.setColor(Color.RED);
+                    break;
+                case EATING:
+                    g2d.setColor(Color.GREEN);
+                    break;
+            }
+
+            g2d.fillOval(x - dot, y - dot, 2 * dot, 2 * dot);
+            if (model.deadlocked(i)) {
+                // Outline the members of a detected deadlock cycle
+                g2d.setColor(Color.ORANGE);
+                g2d.drawOval(x - dot - 3, y - dot - 3, 2 * dot + 6, 2 * dot + 6);
+            }
+            if (!detailed) {
+                continue;
+            }
+            g2d.setColor(Color.BLACK);
+            g2d.drawString("P" + i, x - 5, y + 5);
+            if (!topology.ring) {
+                continue;
+            }
+
+            // Draw chopstick i, which lies between philosophers i and i + 1
+            double slot = i + 0.5;
+            int holder = model.holder((i + 1) % n);
+            if (holder == i) {
+                slot -= 0.25;
+            } else if (holder == (i + 1) % n) {
+                slot += 0.25;
+            }
+            double stickAngle = slot * 2 * Math.PI / n;
+            int x1 = (int) (centerX + (radius - 40) * Math.cos(stickAngle));
+            int y1 = (int) (centerY + (radius - 40) * Math.sin(stickAngle));
+            int x2 = (int) (centerX + (radius + 40) * Math.cos(stickAngle));
+            int y2 = (int) (centerY + (radius + 40) * Math.sin(stickAngle));
+            g2d.setColor(Color.BLACK);
+            g2d.setStroke(holder >= 0 ? THICK : THIN);
+            g2d.drawLine(x1, y1, x2, y2);
+            g2d.setStroke(THIN);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+// State enum needs to be accessible by all classes
+enum PhilosopherState {
+    THINKING, HUNGRY, EATING
+}
@@ -0,0 +1,327 @@
+import java.util.Arrays;
+
+// Event-driven counterparts of ForkStrategies for DiningSimulation. Nothing blocks: a
+// diner that can't proceed is parked in a per-fork queue or on a timer, and whoever frees
+// a fork moves the next diner along. The rules follow the threaded strategies:
+//   NAIVE / ORDERED - take forks one at a time (pick-up order / ascending id), waiting
+//                     in FIFO order on each; NAIVE pauses between forks and can deadlock
+//   WAITER          - take every fork at once when all are free, else wait for a release
+//   CHANDY_MISRA    - a hungry diner receives a fork once it is dirty and its owner is
+//                     not eating; forks become dirty when their owner finishes eating
+//   BACKOFF / CAS   - take all or none, then retry after a randomised exponential back-off.
+//                     CAS spins before backing off, but spinning takes no virtual time,
+//                     so here it differs from BACKOFF only in its ascending fork order.
+//                     Once the back-off is at its cap, retries against a fork that is still
+//                     busy are certain to fail, so rather than simulate thousands of them
+//                     per meal the diner sleeps until that fork is released and then
+//                     retries after a sample of the residual back-off time.
+abstract class SimulatedForks {
+    private static final long MIN_BACKOFF_NANOS = 1_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    final DiningSimulation sim;
+    final Topology topology;
+
+    SimulatedForks(DiningSimulation sim, Topology topology) {
+        this.sim = sim;
+        this.topology = topology;
+    }
+
+    // The diner has just become hungry; call sim.acquired() once it holds every fork
+    abstract void request(int diner);
+
+    // The diner has finished eating and puts all of its forks down
+    abstract void release(int diner);
+
+    // A timer set through sim.scheduleTimer() has fired
+    void timer(int diner) {
+    }
+
+    static SimulatedForks create(ForkStrategy.Kind kind, DiningSimulation sim, Topology topology,
+            long pickupPauseNanos) {
+        switch (kind) {
+            case NAIVE:
+                return new OneAtATime(sim, topology, topology.forksOf, pickupPauseNanos);
+            case ORDERED:
+                return new OneAtATime(sim, topology, sorted(topology), 0);
+            case WAITER:
+                return new Waiter(sim, topology);
+            case CHANDY_MISRA:
+                return new ChandyMisra(sim, topology);
+            case BACKOFF:
+                return new Backoff(sim, topology, topology.forksOf);
+            case CAS:
+                return new Backoff(sim, topology, sorted(topology));
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + kind);
+        }
+    }
+
+    private static int[][] sorted(Topology topology) {
+        int[][] result = new int[topology.dinerCount][];
+        for (int d = 0; d < result.length; d++) {
+            result[d] = topology.forksOf[d].clone();
+            Arrays.sort(result[d]);
+        }
+        return result;
+    }
+
+    // Fork-at-a-time acquisition with a FIFO queue of waiting diners per fork. A diner
+    // waits on at most one fork at a time, so the queues share one next[] array.
+    private static final class OneAtATime extends SimulatedForks {
+        private final int[][] order;
+        private final long pickupPauseNanos;
+        private final int[] holder;
+        private final int[] waitHead;
+        private final int[] waitTail;
+        private final int[] next;
+        private final int[] taken;
+
+        OneAtATime(DiningSimulation sim, Topology topology, int[][] order, long pickupPauseNanos) {
+            super(sim, topology);
+            this.order = order;
+            this.pickupPauseNanos = pickupPauseNanos;
+            holder = new int[topology.forkCount];
+            waitHead = new int[topology.forkCount];
+            waitTail = new int[topology.forkCount];
+            Arrays.fill(holder, -1);
+            Arrays.fill(waitHead, -1);
+            Arrays.fill(waitTail, -1);
+            next = new int[topology.dinerCount];
+            taken = new int[topology.dinerCount];
+        }
+
+        @Override
+        void request(int diner) {
+            taken[diner] = 0;
+            takeNext(diner);
+        }
+
+        @Override
+        void timer(int diner) {
+            takeNext(diner);
+        }
+
+        private void takeNext(int diner) {
+            int fork = order[diner][taken[diner]];
+            if (holder[fork] >= 0) {
+                next[diner] = -1;
+                if (waitTail[fork] < 0) {
+                    waitHead[fork] = diner;
+                } else {
+                    next[waitTail[fork]] = diner;
+                }
+                waitTail[fork] = diner;
+                return;
+            }
+            holder[fork] = diner;
+            gotFork(diner);
+        }
+
+        private void gotFork(int diner) {
+            taken[diner]++;
+            if (taken[diner] == order[diner].length) {
+                sim.acquired(diner);
+            } else if (pickupPauseNanos > 0) {
+                sim.scheduleTimer(diner, pickupPauseNanos);
+            } else {
+                takeNext(diner);
+            }
+        }
+
+        @Override
+        void release(int diner) {
+            for (int fork : order[diner]) {
+                int waiter = waitHead[fork];
+                if (waiter < 0) {
+                    holder[fork] = -1;
+                    continue;
+                }
+                // Hand the fork straight to the longest waiter
+                waitHead[fork] = next[waiter];
+                if (waitHead[fork] < 0) {
+                    waitTail[fork] = -1;
+                }
+                holder[fork] = waiter;
+                gotFork(waiter);
+            }
+        }
+    }
+
+    private static final class Waiter extends SimulatedForks {
+        private final boolean[] busy;
+        private final boolean[] waiting;
+
+        Waiter(DiningSimulation sim, Topology topology) {
+            super(sim, topology);
+            busy = new boolean[topology.forkCount];
+            waiting = new boolean[topology.dinerCount];
+        }
+
+        @Override
+        void request(int diner) {
+            if (!tryTakeAll(diner)) {
+                waiting[diner] = true;
+            }
+        }
+
+        private boolean tryTakeAll(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                if (busy[f]) {
+                    return false;
+                }
+            }
+            for (int f : topology.forksOf[diner]) {
+                busy[f] = true;
+            }
+            sim.acquired(diner);
+            return true;
+        }
+
+        @Override
+        void release(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                busy[f] = false;
+            }
+            // Only diners sharing a freed fork can have become eligible
+            for (int f : topology.forksOf[diner]) {
+                for (int other : topology.dinersOf[f]) {
+                    if (waiting[other] && tryTakeAll(other)) {
+                        waiting[other] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class ChandyMisra extends SimulatedForks {
+        private final int[] owner;
+        private final boolean[] dirty;
+        private final boolean[] hungry;
+        private final boolean[] eating;
+
+        ChandyMisra(DiningSimulation sim, Topology topology) {
+            super(sim, topology);
+            owner = new int[topology.forkCount];
+            dirty = new boolean[topology.forkCount];
+            hungry = new boolean[topology.dinerCount];
+            eating = new boolean[topology.dinerCount];
+            // Same acyclic start as the threaded version: dirty, with the lowest diner
+            for (int f = 0; f < topology.forkCount; f++) {
+                owner[f] = Integer.MAX_VALUE;
+                for (int d : topology.dinersOf[f]) {
+                    owner[f] = Math.min(owner[f], d);
+                }
+                dirty[f] = true;
+            }
+        }
+
+        @Override
+        void request(int diner) {
+            hungry[diner] = true;
+            for (int f : topology.forksOf[diner]) {
+                if (owner[f] != diner && dirty[f] && !eating[owner[f]]) {
+                    owner[f] = diner;
+                    dirty[f] = false;
+                }
+            }
+            tryEat(diner);
+        }
+
+        @Override
+        void release(int diner) {
+            eating[diner] = false;
+            int[] forks = topology.forksOf[diner];
+            for (int f : forks) {
+                dirty[f] = true;
+            }
+            // Hand each dirty fork to the hungry neighbour that has waited longest; with only
+            // two diners per fork that is simply the other one
+            for (int f : forks) {
+                int next = -1;
+                for (int other : topology.dinersOf[f]) {
+                    if (other != diner && hungry[other]
+                            && (next < 0 || sim.hungrySince(other) < sim.hungrySince(next))) {
+                        next = other;
+                    }
+                }
+                if (next >= 0) {
+                    owner[f] = next;
+                    dirty[f] = false;
+                    tryEat(next);
+                }
+            }
+        }
+
+        private void tryEat(int diner) {
+            for (int f : topology.forksOf[diner]) {
+                if (owner[f] != diner) {
+                    return;
+                }
+            }
+            hungry[diner] = false;
+            eating[diner] = true;
+            sim.acquired(diner);
+        }
+    }
+
+    private static final class Backoff extends SimulatedForks {
+        private final int[][] order;
+        private final boolean[] busy;
+        private final long[] cap;
+        // Diners sleeping until a fork is released, as linked lists through next[]
+        private final int[] sleepers;
+        private final int[] next;
+
+        Backoff(DiningSimulation sim, Topology topology, int[][] order) {
+            super(sim, topology);
+            this.order = order;
+            busy = new boolean[topology.forkCount];
+            cap = new long[topology.dinerCount];
+            sleepers = new int[topology.forkCount];
+            Arrays.fill(sleepers, -1);
+            next = new int[topology.dinerCount];
+        }
+
+        @Override
+        void request(int diner) {
+            cap[diner] = MIN_BACKOFF_NANOS;
+            timer(diner);
+        }
+
+        @Override
+        void timer(int diner) {
+            for (int f : order[diner]) {
+                if (busy[f]) {
+                    long c = cap[diner];
+                    if (c == MAX_BACKOFF_NANOS) {
+                        next[diner] = sleepers[f];
+                        sleepers[f] = diner;
+                    } else {
+                        cap[diner] = Math.min(c * 2, MAX_BACKOFF_NANOS);
+                        sim.scheduleTimer(diner, sim.random().nextLong(c) + 1);
+                    }
+                    return;
+                }
+            }
+            for (int f : order[diner]) {
+                busy[f] = true;
+            }
+            sim.acquired(diner);
+        }
+
+        @Override
+        void release(int diner) {
+            for (int f : order[diner]) {
+                busy[f] = false;
+                // Time from the release to a sleeper's next retry: the residual life of
+                // uniform (0, cap] gaps, with density 2 (1 - x / cap) / cap
+                for (int d = sleepers[f]; d >= 0; d = next[d]) {
+                    double u = sim.random().nextDouble();
+                    sim.scheduleTimer(d, (long) (MAX_BACKOFF_NANOS * (1 - Math.sqrt(1 - u))) + 1);
+                }
+                sleepers[f] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+// Kinds of record in the EventLog. Stored by ordinal, so append new kinds at the end to
+// keep exported logs readable.
+enum TableEvent {
+    THINKING("is thinking"),
+    HUNGRY("is hungry and waiting for chopsticks"),
+    ACQUIRED("picked up both chopsticks"),
+    EATING("is eating"),
+    RELEASED("put down chopsticks"),
+    PAUSED("Simulation paused"),
+    RESUMED("Simulation resumed"),
+    STEPPED("Simulation stepped one cycle"),
+    // Only recorded by TraceRecorder, which stores the fork alongside
+    FORK_TAKEN("picked up a fork"),
+    FORK_RELEASED("put down a fork");
+
+    private static final TableEvent[] VALUES = values();
+
+    private final String text;
+
+    TableEvent(String text) {
+        this.text = text;
+    }
+
+    static TableEvent of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Log line in the same wording the status area always used
+    String describe(int philosopher) {
+        return (philosopher < 0) ? text : "Philosopher " + philosopher + " " + text;
+    }
+}
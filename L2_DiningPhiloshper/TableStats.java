@@ -0,0 +1,113 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Meal counts per diner and a log2 histogram of how long diners waited for their forks
+// (hungry until eating). Histogram buckets are LongAdders so recording doesn't contend.
+final class TableStats {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray meals;
+    private final LongAdder[] waitBuckets = new LongAdder[BUCKETS];
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    TableStats(int diners) {
+        meals = new AtomicLongArray(diners);
+        for (int b = 0; b < BUCKETS; b++) {
+            waitBuckets[b] = new LongAdder();
+        }
+    }
+
+    // Called by the diner's own thread as it starts eating
+    void recordMeal(int diner, long waitNanos) {
+        meals.lazySet(diner, meals.get(diner) + 1);
+        waitBuckets[bucket(waitNanos)].increment();
+        totalWaitNanos.add(waitNanos);
+    }
+
+    long meals(int diner) {
+        return meals.get(diner);
+    }
+
+    long totalMeals() {
+        long total = 0;
+        for (int d = 0; d < meals.length(); d++) {
+            total += meals.get(d);
+        }
+        return total;
+    }
+
+    // Jain's fairness index over meals per diner: 1 when everyone ate equally, 1/N when one diner ate
+    double fairness() {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int d = 0; d < meals.length(); d++) {
+            double m = meals.get(d);
+            sum += m;
+            sumOfSquares += m * m;
+        }
+        return (sumOfSquares == 0) ? 1.0 : sum * sum / (meals.length() * sumOfSquares);
+    }
+
+    // Snapshot of the wait histogram; bucket b counts waits in (2^(b-1), 2^b] nanoseconds
+    long[] waitHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = waitBuckets[b].sum();
+        }
+        return counts;
+    }
+
+    // Upper bound (in nanoseconds) of the histogram bucket holding the q-quantile wait
+    long waitPercentile(double q) {
+        long[] counts = waitHistogram();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return (b == 0) ? 1 : (b >= 63 ? Long.MAX_VALUE : 1L << b);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    String report(double seconds) {
+        long total = totalMeals();
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int d = 0; d < meals.length(); d++) {
+            min = Math.min(min, meals.get(d));
+            max = Math.max(max, meals.get(d));
+        }
+        return String.format("meals %d, %.1f meals/s, fairness %.3f (min %d, max %d per diner), "
+                + "wait mean %s p50 %s p99 %s p99.9 %s",
+                total, total / seconds, fairness(), min, max,
+                formatNanos(total == 0 ? 0 : totalWaitNanos.sum() / total),
+                formatNanos(waitPercentile(0.5)), formatNanos(waitPercentile(0.99)),
+                formatNanos(waitPercentile(0.999)));
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1fms", nanos / 1e6);
+        }
+        return String.format("%.2fs", nanos / 1e9);
+    }
+
+    private static int bucket(long nanos) {
+        return (nanos <= 1) ? 0 : 64 - Long.numberOfLeadingZeros(nanos - 1);
+    }
+}
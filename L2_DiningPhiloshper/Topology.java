@@ -0,0 +1,224 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Which forks each diner needs. The classic table is a ring where philosopher i needs
+// fork i (left) and fork i + 1 (right). Any conflict graph works: the generated shapes put
+// one fork on each edge between two diners, and a file can give every diner an arbitrary
+// set of resources shared with any number of others.
+final class Topology {
+    final String description;
+    final int dinerCount;
+    final int forkCount;
+    // forksOf[d] in pick-up order; dinersOf[f] lists every diner that needs fork f
+    final int[][] forksOf;
+    final int[][] dinersOf;
+    // True for ring(); the view only draws chopsticks between neighbours for a ring
+    final boolean ring;
+
+    Topology(int forkCount, int[][] forksOf) {
+        this("custom", forkCount, forksOf, false);
+    }
+
+    Topology(String description, int forkCount, int[][] forksOf, boolean ring) {
+        for (int d = 0; d < forksOf.length; d++) {
+            if (forksOf[d].length == 0) {
+                throw new IllegalArgumentException("Diner " + d + " needs no forks");
+            }
+        }
+        this.description = description;
+        this.ring = ring;
+        this.dinerCount = forksOf.length;
+        this.forkCount = forkCount;
+        this.forksOf = forksOf;
+
+        // A diner listing a fork twice would block on the fork it already holds
+        int[] counts = new int[forkCount];
+        int[] lastDiner = new int[forkCount];
+        Arrays.fill(lastDiner, -1);
+        for (int d = 0; d < forksOf.length; d++) {
+            for (int f : forksOf[d]) {
+                if (lastDiner[f] == d) {
+                    throw new IllegalArgumentException("Diner " + d + " needs fork " + f + " twice");
+                }
+                lastDiner[f] = d;
+                counts[f]++;
+            }
+        }
+        dinersOf = new int[forkCount][];
+        for (int f = 0; f < forkCount; f++) {
+            dinersOf[f] = new int[counts[f]];
+        }
+        int[] filled = new int[forkCount];
+        for (int d = 0; d < forksOf.length; d++) {
+            for (int f : forksOf[d]) {
+                dinersOf[f][filled[f]++] = d;
+            }
+        }
+    }
+
+    static Topology ring(int n) {
+        int[][] forksOf = new int[n][];
+        for (int i = 0; i < n; i++) {
+            forksOf[i] = new int[] { i, (i + 1) % n };
+        }
+        return new Topology("ring(" + n + ")", n, forksOf, true);
+    }
+
+    // rows x cols diners; neighbours across each horizontal and vertical edge share a fork
+    static Topology grid(int rows, int cols) {
+        List<int[]> edges = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int d = r * cols + c;
+                if (c + 1 < cols) {
+                    edges.add(new int[] { d, d + 1 });
+                }
+                if (r + 1 < rows) {
+                    edges.add(new int[] { d, d + cols });
+                }
+            }
+        }
+        return fromEdges("grid(" + rows + "x" + cols + ")", rows * cols, edges);
+    }
+
+    // Every pair of diners shares a fork, so each diner needs n - 1 of them
+    static Topology complete(int n) {
+        List<int[]> edges = new ArrayList<>();
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                edges.add(new int[] { a, b });
+            }
+        }
+        return fromEdges("complete(" + n + ")", n, edges);
+    }
+
+    // Random graph with n * degree / 2 distinct edges, i.e. the given mean degree
+    static Topology random(int n, double degree, long seed) {
+        long target = Math.min((long) (n * degree / 2), (long) n * (n - 1) / 2);
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<Long> seen = new HashSet<>();
+        List<int[]> edges = new ArrayList<>();
+        while (edges.size() < target) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            if (a == b) {
+                continue;
+            }
+            if (seen.add((long) Math.min(a, b) * n + Math.max(a, b))) {
+                edges.add(new int[] { a, b });
+            }
+        }
+        return fromEdges(String.format("random(%d, degree %s)", n, degree), n, edges);
+    }
+
+    // One line per diner listing the resources it needs (any non-negative ids, separated by
+    // spaces or commas); blank lines and lines starting with # are skipped
+    static Topology load(Path file) throws IOException {
+        List<int[]> needs = new ArrayList<>();
+        Map<Integer, Integer> forkIds = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] tokens = line.split("[\\s,]+");
+                int[] forks = new int[tokens.length];
+                Set<Integer> listed = new HashSet<>();
+                for (int i = 0; i < tokens.length; i++) {
+                    int resource;
+                    try {
+                        resource = Integer.parseInt(tokens[i]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException(file + ":" + lineNumber + ": not a resource id: " + tokens[i]);
+                    }
+                    if (!listed.add(resource)) {
+                        throw new IOException(file + ":" + lineNumber + ": resource " + resource + " listed twice");
+                    }
+                    // Compact ids so that every fork has at least one diner
+                    Integer id = forkIds.get(resource);
+                    if (id == null) {
+                        id = forkIds.size();
+                        forkIds.put(resource, id);
+                    }
+                    forks[i] = id;
+                }
+                needs.add(forks);
+            }
+        }
+        return new Topology(file.getFileName().toString(), forkIds.size(), needs.toArray(new int[0][]), false);
+    }
+
+    // Parses a --topology value: ring, grid[:ROWSxCOLS], complete, random[:DEGREE] or a file.
+    // n is the diner count for the shapes that don't fix it themselves.
+    static Topology parse(String spec, int n, long seed) throws IOException {
+        String[] parts = spec.split(":", 2);
+        switch (parts[0].toLowerCase()) {
+            case "ring":
+                return ring(n);
+            case "complete":
+                return complete(n);
+            case "random":
+                return random(n, parts.length > 1 ? Double.parseDouble(parts[1]) : 4, seed);
+            case "grid":
+                if (parts.length > 1) {
+                    String[] size = parts[1].toLowerCase().split("x");
+                    return grid(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+                }
+                int side = (int) Math.ceil(Math.sqrt(n));
+                return grid(side, (n + side - 1) / side);
+            default:
+                if (!Files.exists(Paths.get(spec))) {
+                    throw new IllegalArgumentException("Unknown topology " + spec
+                            + " (expected ring, grid[:RxC], complete, random[:DEGREE] or a file)");
+                }
+                return load(Paths.get(spec));
+        }
+    }
+
+    // Each edge becomes one fork; isolated diners get a fork of their own
+    private static Topology fromEdges(String description, int n, List<int[]> edges) {
+        int[] degree = new int[n];
+        for (int[] e : edges) {
+            degree[e[0]]++;
+            degree[e[1]]++;
+        }
+        int forkCount = edges.size();
+        int[][] forksOf = new int[n][];
+        for (int d = 0; d < n; d++) {
+            forksOf[d] = new int[Math.max(1, degree[d])];
+            if (degree[d] == 0) {
+                forksOf[d][0] = forkCount++;
+            }
+        }
+        int[] filled = new int[n];
+        for (int f = 0; f < edges.size(); f++) {
+            int[] e = edges.get(f);
+            forksOf[e[0]][filled[e[0]]++] = f;
+            forksOf[e[1]][filled[e[1]]++] = f;
+        }
+        return new Topology(description, forkCount, forksOf, false);
+    }
+
+    int maxForksPerDiner() {
+        int max = 0;
+        for (int[] forks : forksOf) {
+            max = Math.max(max, forks.length);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.PriorityQueue;
+
+// A TraceRecorder file loaded for replay: every record in time order, plus a cursor over
+// them that can move either way. Moving back is as cheap as moving forward because load()
+// plays the trace through once and keeps, per record, the value it overwrote (the
+// philosopher's previous state, or the fork's previous holder).
+final class TraceFile {
+    final Topology topology;
+    final ForkStrategy.Kind kind;
+    final int count;
+    private final long[] times;
+    private final int[] philosophers;
+    private final int[] words;
+    private final int[] undo;
+
+    // State at the cursor: records [0, position) have been applied
+    private final PhilosopherState[] states;
+    private final int[] holders;
+    private int position;
+
+    private TraceFile(Topology topology, ForkStrategy.Kind kind, long[] times, int[] philosophers, int[] words) {
+        this.topology = topology;
+        this.kind = kind;
+        this.count = times.length;
+        this.times = times;
+        this.philosophers = philosophers;
+        this.words = words;
+        undo = new int[count];
+        states = new PhilosopherState[topology.dinerCount];
+        holders = new int[topology.forkCount];
+        reset();
+        // Fill undo[] by playing everything once
+        while (position < count) {
+            forward();
+        }
+        reset();
+    }
+
+    static TraceFile load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, TraceRecorder.CHUNK_BYTES));
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            if (head.limit() < 44 || head.getInt(0) != TraceRecorder.MAGIC) {
+                throw new IOException(file + " is not a dining philosophers trace");
+            }
+            if (head.getInt(4) != TraceRecorder.VERSION) {
+                throw new IOException("Unsupported trace version " + head.getInt(4));
+            }
+            int headerBytes = head.getInt(8);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerBytes);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            long chunks = header.getLong(12);
+            ForkStrategy.Kind kind = ForkStrategy.Kind.values()[header.getInt(28)];
+            boolean ring = header.getInt(32) == 1;
+            int forkCount = header.getInt(36);
+            int dinerCount = header.getInt(40);
+            header.position(44);
+            int[][] forksOf = new int[dinerCount][];
+            for (int d = 0; d < dinerCount; d++) {
+                forksOf[d] = new int[header.getInt()];
+                for (int i = 0; i < forksOf[d].length; i++) {
+                    forksOf[d][i] = header.getInt();
+                }
+            }
+            byte[] description = new byte[header.getInt()];
+            header.get(description);
+            Topology topology = new Topology(new String(description, StandardCharsets.UTF_8), forkCount,
+                    forksOf, ring);
+
+            // A trace that was never closed has no chunk count; read every chunk in the file
+            long available = (size - headerBytes) / TraceRecorder.CHUNK_BYTES;
+            if (chunks == 0 || chunks > available) {
+                chunks = available;
+            }
+            Merger merged = new Merger(channel, headerBytes, chunks);
+            return new TraceFile(topology, kind, merged.times, merged.philosophers, merged.words);
+        }
+    }
+
+    // Reads every chunk and merges them into one time-ordered list. Each chunk is already
+    // in order, so this is a k-way merge over the chunks.
+    private static final class Merger {
+        private static final int RECORDS_PER_CHUNK = TraceRecorder.CHUNK_BYTES / TraceRecorder.RECORD_BYTES;
+
+        long[] times;
+        int[] philosophers;
+        int[] words;
+
+        Merger(FileChannel channel, long headerBytes, long chunks) throws IOException {
+            // Load all records chunk by chunk, noting where each chunk's records end
+            long records = chunks * RECORDS_PER_CHUNK;
+            if (records > Integer.MAX_VALUE - 8) {
+                throw new IOException("Trace too large to replay: " + chunks + " chunks");
+            }
+            long[] t = new long[(int) records];
+            int[] p = new int[(int) records];
+            int[] w = new int[(int) records];
+            int[] ends = new int[(int) chunks];
+            long perMap = TraceRecorder.SEGMENT_BYTES / TraceRecorder.CHUNK_BYTES;
+            int n = 0;
+            for (long c0 = 0; c0 < chunks; c0 += perMap) {
+                long mapped = Math.min(perMap, chunks - c0);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        headerBytes + c0 * TraceRecorder.CHUNK_BYTES, mapped * TraceRecorder.CHUNK_BYTES);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                for (int c = 0; c < mapped; c++) {
+                    int base = c * TraceRecorder.CHUNK_BYTES;
+                    for (int r = 0; r < RECORDS_PER_CHUNK; r++) {
+                        int at = base + r * TraceRecorder.RECORD_BYTES;
+                        long time = buffer.getLong(at);
+                        if (time == 0) {
+                            break;
+                        }
+                        t[n] = time;
+                        p[n] = buffer.getInt(at + 8);
+                        w[n] = buffer.getInt(at + 12);
+                        n++;
+                    }
+                    ends[(int) (c0 + c)] = n;
+                }
+            }
+
+            times = new long[n];
+            philosophers = new int[n];
+            words = new int[n];
+            // Heap of chunks ordered by the time of their next record
+            int[] cursor = new int[ends.length];
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, ends.length),
+                    (a, b) -> Long.compare(t[cursor[a]], t[cursor[b]]));
+            for (int c = 0; c < ends.length; c++) {
+                cursor[c] = c == 0 ? 0 : ends[c - 1];
+                if (cursor[c] < ends[c]) {
+                    heap.add(c);
+                }
+            }
+            int out = 0;
+            while (!heap.isEmpty()) {
+                int c = heap.poll();
+                int i = cursor[c]++;
+                times[out] = t[i];
+                philosophers[out] = p[i];
+                words[out] = w[i];
+                out++;
+                if (cursor[c] < ends[c]) {
+                    heap.add(c);
+                }
+            }
+        }
+    }
+
+    void reset() {
+        for (int d = 0; d < states.length; d++) {
+            states[d] = PhilosopherState.THINKING;
+        }
+        for (int f = 0; f < holders.length; f++) {
+            holders[f] = -1;
+        }
+        position = 0;
+    }
+
+    int position() {
+        return position;
+    }
+
+    // Nanoseconds since the trace started of record i
+    long time(int i) {
+        return times[i] - 1;
+    }
+
+    long duration() {
+        return count == 0 ? 0 : time(count - 1);
+    }
+
+    int philosopher(int i) {
+        return philosophers[i];
+    }
+
+    TableEvent event(int i) {
+        return TableEvent.of(words[i] & 0xFF);
+    }
+
+    int fork(int i) {
+        return words[i] >>> 8;
+    }
+
+    String describe(int i) {
+        TableEvent event = event(i);
+        String text = event.describe(philosophers[i]);
+        if (event == TableEvent.FORK_TAKEN || event == TableEvent.FORK_RELEASED) {
+            text += " (" + fork(i) + ")";
+        }
+        return String.format("%10.6fs  %s", time(i) / 1e9, text);
+    }
+
+    PhilosopherState state(int philosopher) {
+        return states[philosopher];
+    }
+
+    int holder(int fork) {
+        return holders[fork];
+    }
+
+    // Applies the next record; false at the end
+    boolean forward() {
+        if (position == count) {
+            return false;
+        }
+        int i = position++;
+        int p = philosophers[i];
+        switch (event(i)) {
+            case THINKING:
+                undo[i] = states[p].ordinal();
+                states[p] = PhilosopherState.THINKING;
+                break;
+            case HUNGRY:
+                undo[i] = states[p].ordinal();
+                states[p] = PhilosopherState.HUNGRY;
+                break;
+            case EATING:
+                undo[i] = states[p].ordinal();
+                states[p] = PhilosopherState.EATING;
+                break;
+            case FORK_TAKEN:
+                undo[i] = holders[fork(i)];
+                holders[fork(i)] = p;
+                break;
+            case FORK_RELEASED:
+                undo[i] = holders[fork(i)];
+                holders[fork(i)] = -1;
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    // Reverts the last applied record; false at the start
+    boolean backward() {
+        if (position == 0) {
+            return false;
+        }
+        int i = --position;
+        switch (event(i)) {
+            case THINKING:
+            case HUNGRY:
+            case EATING:
+                states[philosophers[i]] = PhilosopherState.values()[undo[i]];
+                break;
+            case FORK_TAKEN:
+            case FORK_RELEASED:
+                holders[fork(i)] = undo[i];
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    // Moves the cursor to just after the last record at or before nanos
+    void seek(long nanos) {
+        while (position < count && time(position) <= nanos) {
+            forward();
+        }
+        while (position > 0 && time(position - 1) > nanos) {
+            backward();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Binary trace of a DiningTable run, written straight into a memory-mapped file. Little-endian:
+//   header, padded to a multiple of CHUNK_BYTES: "DPTR" magic, int version, int header
+//     bytes, long chunks written (0 until close), long System.nanoTime() at start,
+//     int strategy ordinal, int ring flag, int fork count, int diner count, then each
+//     diner's fork count and fork ids, then the topology description (int length, UTF-8)
+//   chunks of CHUNK_BYTES, each filled by one lane with 16-byte records:
+//     long nanos since start + 1 (0 marks an unused slot), int philosopher (-1 table-wide),
+//     int TableEvent ordinal | fork << 8 (fork 0 for events without one)
+// Every philosopher writes to its own lane and table-wide events share one more. A lane
+// claims a whole chunk at a time with one getAndIncrement and fills it with plain stores,
+// so a record costs a nanoTime() call and three puts into memory the philosopher has to
+// itself. Records are in time order within a chunk; TraceFile merges the chunks.
+final class TraceRecorder implements Closeable {
+    static final int MAGIC = 0x52545044; // "DPTR" read as a little-endian int
+    static final int VERSION = 1;
+    static final int RECORD_BYTES = 16;
+    static final int CHUNK_BYTES = 4096;
+    // The file is mapped this much at a time, as it grows
+    static final int SEGMENT_BYTES = 16 << 20;
+    private static final int CHUNKS_PER_SEGMENT = SEGMENT_BYTES / CHUNK_BYTES;
+    private static final int CHUNK_COUNT_OFFSET = 12;
+
+    private final FileChannel channel;
+    private final long headerBytes;
+    private final long startNanos;
+    private final Lane[] lanes;
+    private final AtomicLong nextChunk = new AtomicLong();
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    // The part of a chunk a lane has left to fill; only touched by the lane's own thread
+    private static final class Lane {
+        ByteBuffer chunk;
+        int position = CHUNK_BYTES;
+    }
+
+    TraceRecorder(Path file, Topology topology, ForkStrategy.Kind kind) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        startNanos = System.nanoTime();
+
+        byte[] description = topology.description.getBytes(StandardCharsets.UTF_8);
+        long size = 44 + 4L * topology.dinerCount + 4 + description.length;
+        for (int[] forks : topology.forksOf) {
+            size += 4L * forks.length;
+        }
+        headerBytes = (size + CHUNK_BYTES - 1) / CHUNK_BYTES * CHUNK_BYTES;
+        ByteBuffer header = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt((int) headerBytes).putLong(0).putLong(startNanos)
+                .putInt(kind.ordinal()).putInt(topology.ring ? 1 : 0)
+                .putInt(topology.forkCount).putInt(topology.dinerCount);
+        for (int[] forks : topology.forksOf) {
+            header.putInt(forks.length);
+            for (int f : forks) {
+                header.putInt(f);
+            }
+        }
+        header.putInt(description.length).put(description);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        lanes = new Lane[topology.dinerCount + 1];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    // Called on the philosopher's own thread (or any thread, with philosopher -1)
+    void record(int philosopher, TableEvent kind) {
+        write(philosopher, kind.ordinal());
+    }
+
+    void forkTaken(int philosopher, int fork) {
+        write(philosopher, TableEvent.FORK_TAKEN.ordinal() | fork << 8);
+    }
+
+    void forkReleased(int philosopher, int fork) {
+        write(philosopher, TableEvent.FORK_RELEASED.ordinal() | fork << 8);
+    }
+
+    private void write(int philosopher, int word) {
+        if (philosopher < 0) {
+            // Table-wide events come from whichever thread pauses or steps. The time is
+            // read under the lock, or two writers could store their records out of order.
+            Lane lane = lanes[lanes.length - 1];
+            synchronized (lane) {
+                put(lane, System.nanoTime() - startNanos + 1, philosopher, word);
+            }
+        } else {
+            put(lanes[philosopher], System.nanoTime() - startNanos + 1, philosopher, word);
+        }
+    }
+
+    private void put(Lane lane, long nanos, int philosopher, int word) {
+        if (lane.position == CHUNK_BYTES) {
+            lane.chunk = claimChunk();
+            lane.position = 0;
+        }
+        ByteBuffer chunk = lane.chunk;
+        int p = lane.position;
+        chunk.putInt(p + 8, philosopher);
+        chunk.putInt(p + 12, word);
+        // Time last: a reader of a crashed trace takes a non-zero time as a whole record
+        chunk.putLong(p, nanos);
+        lane.position = p + RECORD_BYTES;
+    }
+
+    private ByteBuffer claimChunk() {
+        long chunk = nextChunk.getAndIncrement();
+        int index = (int) (chunk / CHUNKS_PER_SEGMENT);
+        MappedByteBuffer[] mapped = segments;
+        MappedByteBuffer segment = index < mapped.length ? mapped[index] : null;
+        if (segment == null) {
+            segment = mapSegment(index);
+        }
+        int offset = (int) (chunk % CHUNKS_PER_SEGMENT) * CHUNK_BYTES;
+        return segment.slice(offset, CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private synchronized MappedByteBuffer mapSegment(int index) {
+        MappedByteBuffer[] mapped = segments;
+        if (index >= mapped.length) {
+            mapped = Arrays.copyOf(mapped, Math.max(index + 1, 2 * mapped.length));
+        }
+        if (mapped[index] == null) {
+            try {
+                // Mapping past the end grows the file; the new pages read as zero
+                mapped[index] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        headerBytes + (long) index * SEGMENT_BYTES, SEGMENT_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments = mapped;
+        }
+        return mapped[index];
+    }
+
+    long chunksUsed() {
+        return nextChunk.get();
+    }
+
+    // Flushes the mapped pages and records how many chunks were used. Call only after
+    // every recording thread has stopped. The file keeps its mapped size; the reader
+    // stops at the recorded chunk count.
+    @Override
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer segment : segments) {
+                if (segment != null) {
+                    segment.force();
+                }
+            }
+            ByteBuffer count = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, nextChunk.get());
+            channel.write(count, CHUNK_COUNT_OFFSET);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import javax.swing.*;
+
+// Plays back a trace written by DiningPhilosophers --trace:
+//
+//   java TraceReplay FILE [--dump [LIMIT]]
+//
+// The table is drawn with the live view's PhilosopherPanel, including which philosopher
+// holds each fork. Playback runs forwards or backwards at any speed from 1/1000 to 1000
+// times real time, steps one record at a time, or jumps anywhere with the time slider.
+// --dump prints the first LIMIT records (all by default) and the state after them
+// instead of opening a window.
+public class TraceReplay extends JFrame {
+    private static final int FRAME_MS = 33;
+    // Speed slider positions map to 10^(position / 100) times real time
+    private static final int SPEED_RANGE = 300;
+    private static final int SCRUB_STEPS = 10_000;
+
+    private final TraceFile trace;
+    private final PhilosopherPanel panel;
+    private final JButton playButton;
+    private final JButton directionButton;
+    private final JSlider speedSlider;
+    private final JSlider timeSlider;
+    private final JLabel speedLabel;
+    private final JLabel statusLabel;
+    private boolean playing;
+    private boolean reverse;
+    // Replay clock in trace nanoseconds, and the wall clock when it was last advanced
+    private long now;
+    private long lastFrame;
+    // Set while the timer moves the time slider, so that isn't taken for a user scrub
+    private boolean updatingSlider;
+
+    public TraceReplay(TraceFile trace, String name) {
+        this.trace = trace;
+        setTitle("Dining Philosophers Replay - " + name);
+        setSize(800, 800);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel controlPanel = new JPanel();
+        playButton = new JButton("Play");
+        playButton.addActionListener(e -> setPlaying(!playing));
+        directionButton = new JButton("Forward");
+        directionButton.setToolTipText("Switch between playing forwards and backwards");
+        directionButton.addActionListener(e -> {
+            reverse = !reverse;
+            directionButton.setText(reverse ? "Backward" : "Forward");
+        });
+        JButton backButton = new JButton("< Step");
+        backButton.addActionListener(e -> step(false));
+        JButton stepButton = new JButton("Step >");
+        stepButton.addActionListener(e -> step(true));
+        speedSlider = new JSlider(-SPEED_RANGE, SPEED_RANGE, 0);
+        speedSlider.setPreferredSize(new Dimension(160, speedSlider.getPreferredSize().height));
+        speedLabel = new JLabel();
+        speedSlider.addChangeListener(e -> showSpeed());
+        controlPanel.add(playButton);
+        controlPanel.add(directionButton);
+        controlPanel.add(backButton);
+        controlPanel.add(stepButton);
+        controlPanel.add(new JLabel("Speed"));
+        controlPanel.add(speedSlider);
+        controlPanel.add(speedLabel);
+        showSpeed();
+
+        panel = new PhilosopherPanel(new PhilosopherPanel.Model() {
+            @Override
+            public Topology topology() {
+                return trace.topology;
+            }
+
+            @Override
+            public PhilosopherState state(int diner) {
+                return trace.state(diner);
+            }
+
+            @Override
+            public boolean deadlocked(int diner) {
+                // The trace doesn't carry the monitor's verdict; the held forks show it
+                return false;
+            }
+
+            @Override
+            public int holder(int fork) {
+                return trace.holder(fork);
+            }
+        });
+
+        timeSlider = new JSlider(0, SCRUB_STEPS, 0);
+        timeSlider.addChangeListener(e -> {
+            if (!updatingSlider) {
+                now = trace.duration() * timeSlider.getValue() / SCRUB_STEPS;
+                trace.seek(now);
+                showPosition();
+            }
+        });
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(timeSlider, BorderLayout.NORTH);
+        bottomPanel.add(statusLabel, BorderLayout.SOUTH);
+
+        add(controlPanel, BorderLayout.NORTH);
+        add(panel, BorderLayout.CENTER);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        showPosition();
+        new Timer(FRAME_MS, e -> advance()).start();
+    }
+
+    private double speed() {
+        return Math.pow(10, speedSlider.getValue() / 100.0);
+    }
+
+    private void showSpeed() {
+        double speed = speed();
+        speedLabel.setText(speed >= 1 ? String.format("%.0fx", speed) : String.format("1/%.0fx", 1 / speed));
+    }
+
+    private void setPlaying(boolean playing) {
+        this.playing = playing;
+        playButton.setText(playing ? "Pause" : "Play");
+        lastFrame = System.nanoTime();
+    }
+
+    // Moves exactly one record and the clock with it
+    private void step(boolean forward) {
+        setPlaying(false);
+        if (forward ? trace.forward() : trace.backward()) {
+            int p = trace.position();
+            now = p == 0 ? 0 : trace.time(p - 1);
+        }
+        showPosition();
+    }
+
+    // Runs on the EDT once per frame
+    private void advance() {
+        if (!playing) {
+            return;
+        }
+        long wall = System.nanoTime();
+        long delta = (long) ((wall - lastFrame) * speed());
+        lastFrame = wall;
+        now = reverse ? Math.max(0, now - delta) : Math.min(trace.duration(), now + delta);
+        trace.seek(now);
+        if (now == 0 && reverse || now == trace.duration() && !reverse) {
+            setPlaying(false);
+        }
+        showPosition();
+    }
+
+    private void showPosition() {
+        updatingSlider = true;
+        long duration = trace.duration();
+        timeSlider.setValue(duration == 0 ? 0 : (int) (now * SCRUB_STEPS / duration));
+        updatingSlider = false;
+        int p = trace.position();
+        statusLabel.setText(String.format("%d / %d  %s", p, trace.count,
+                p == 0 ? String.format("%10.6fs  start", now / 1e9) : trace.describe(p - 1)));
+        panel.repaint();
+    }
+
+    // Prints records and the resulting state, then walks back to the start to check that
+    // every record undoes cleanly
+    private static void dump(TraceFile trace, int limit) {
+        System.out.printf("%-12s %s: %d records over %.3fs%n", trace.kind, trace.topology.description, trace.count,
+                trace.duration() / 1e9);
+        while (trace.position() < limit && trace.forward()) {
+            System.out.println(trace.describe(trace.position() - 1));
+        }
+        StringBuilder states = new StringBuilder();
+        for (int d = 0; d < trace.topology.dinerCount; d++) {
+            states.append(d == 0 ? "" : " ").append(trace.state(d).name().charAt(0));
+        }
+        StringBuilder holders = new StringBuilder();
+        for (int f = 0; f < trace.topology.forkCount; f++) {
+            holders.append(f == 0 ? "" : " ").append(trace.holder(f) < 0 ? "-" : String.valueOf(trace.holder(f)));
+        }
+        System.out.printf("After %d records%n  states:  %s%n  holders: %s%n", trace.position(), states, holders);
+
+        while (trace.backward()) {
+        }
+        boolean clean = true;
+        for (int d = 0; d < trace.topology.dinerCount; d++) {
+            clean &= trace.state(d) == PhilosopherState.THINKING;
+        }
+        for (int f = 0; f < trace.topology.forkCount; f++) {
+            clean &= trace.holder(f) == -1;
+        }
+        System.out.println(clean ? "Rewound to the start" : "Rewind did not restore the start state");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || (args.length > 1 && !args[1].equals("--dump"))) {
+            System.err.println("Usage: java TraceReplay FILE [--dump [LIMIT]]");
+            System.exit(1);
+        }
+        TraceFile trace = TraceFile.load(Paths.get(args[0]));
+        if (args.length > 1) {
+            dump(trace, args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE);
+            return;
+        }
+        SwingUtilities.invokeLater(() -> new TraceReplay(trace, args[0]).setVisible(true));
+    }
+}
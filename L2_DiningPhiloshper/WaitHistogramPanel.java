@@ -0,0 +1,79 @@
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import javax.swing.*;
+
+// Compact bar strip of TableStats.waitHistogram(): one bar per log2 bucket from the shortest
+// to the longest wait seen so far, scaled to the fullest bucket. Hovering over a bar shows
+// its range and count.
+class WaitHistogramPanel extends JPanel {
+    private static final int BAR_AREA_HEIGHT = 36;
+
+    private long[] counts = new long[0];
+    // Buckets [first, last] are drawn; first > last until anyone has eaten
+    private int first = 1;
+    private int last = 0;
+
+    WaitHistogramPanel() {
+        setPreferredSize(new Dimension(200, BAR_AREA_HEIGHT + 14));
+        setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        setToolTipText("");
+    }
+
+    // Runs on the EDT
+    void setCounts(long[] counts) {
+        this.counts = counts;
+        first = 0;
+        while (first < counts.length && counts[first] == 0) {
+            first++;
+        }
+        last = counts.length - 1;
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        g.setFont(getFont().deriveFont(10f));
+        if (first > last) {
+            g.setColor(Color.GRAY);
+            g.drawString("no waits yet", 4, getHeight() / 2 + 4);
+            return;
+        }
+        long max = 0;
+        for (int b = first; b <= last; b++) {
+            max = Math.max(max, counts[b]);
+        }
+        int width = getWidth() - 2;
+        int buckets = last - first + 1;
+        g.setColor(Color.RED.darker());
+        for (int b = first; b <= last; b++) {
+            int x0 = 1 + (b - first) * width / buckets;
+            int x1 = 1 + (b - first + 1) * width / buckets;
+            int h = (int) Math.ceil((double) counts[b] * BAR_AREA_HEIGHT / max);
+            g.fillRect(x0, 1 + BAR_AREA_HEIGHT - h, Math.max(1, x1 - x0 - 1), h);
+        }
+        g.setColor(Color.BLACK);
+        g.drawString(TableStats.formatNanos(upperBound(first - 1)), 2, getHeight() - 2);
+        String high = TableStats.formatNanos(upperBound(last));
+        g.drawString(high, getWidth() - 2 - g.getFontMetrics().stringWidth(high), getHeight() - 2);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (first > last) {
+            return "Wait-time histogram: no meals yet";
+        }
+        int buckets = last - first + 1;
+        int b = first + Math.max(0, Math.min(buckets - 1, (e.getX() - 1) * buckets / Math.max(1, getWidth() - 2)));
+        return String.format("%s - %s: %d meals", TableStats.formatNanos(upperBound(b - 1)),
+                TableStats.formatNanos(upperBound(b)), counts[b]);
+    }
+
+    // Bucket b holds waits in (2^(b-1), 2^b] nanoseconds; bucket 0 everything up to 1ns
+    private static long upperBound(int b) {
+        return b < 0 ? 0 : (b >= 63 ? Long.MAX_VALUE : 1L << b);
+    }
+}
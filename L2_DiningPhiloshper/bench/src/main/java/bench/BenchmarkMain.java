@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Same command line as the stock JMH launcher. Without -t, every benchmark is run at each
+// of THREAD_COUNTS and a table of score by thread count is printed at the end, one row
+// per parameter combination, to show how each primitive scales.
+public class BenchmarkMain {
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.getThreads().hasValue()) {
+            new Runner(cmdOptions).run();
+            return;
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : THREAD_COUNTS) {
+            results.addAll(new Runner(new OptionsBuilder()
+                    .parent(cmdOptions)
+                    .threads(threads)
+                    .build()).run());
+        }
+
+        // row label -> thread count -> score
+        Map<String, Map<Integer, Double>> rows = new TreeMap<>();
+        String unit = "";
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            StringBuilder label = new StringBuilder(params.getBenchmark().replaceFirst("^.*\\.", ""));
+            for (String key : params.getParamsKeys()) {
+                label.append(' ').append(key).append('=').append(params.getParam(key));
+            }
+            rows.computeIfAbsent(label.toString(), k -> new TreeMap<>())
+                    .put(params.getThreads(), result.getPrimaryResult().getScore());
+            unit = result.getPrimaryResult().getScoreUnit();
+        }
+
+        System.out.println();
+        System.out.printf("Score (%s) by thread count%n", unit);
+        StringBuilder header = new StringBuilder(String.format("%-70s", ""));
+        for (int threads : THREAD_COUNTS) {
+            header.append(String.format("%10d", threads));
+        }
+        System.out.println(header);
+        for (Map.Entry<String, Map<Integer, Double>> row : rows.entrySet()) {
+            StringBuilder line = new StringBuilder(String.format("%-70s", row.getKey()));
+            for (int threads : THREAD_COUNTS) {
+                Double score = row.getValue().get(threads);
+                line.append(score == null ? String.format("%10s", "-") : String.format("%10.3f", score));
+            }
+            System.out.println(line);
+        }
+    }
+}
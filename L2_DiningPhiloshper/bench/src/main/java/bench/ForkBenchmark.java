@@ -0,0 +1,58 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+// Meals per microsecond for each primitive. Every benchmark thread is a diner (thread i
+// sits at seat i mod forks) that eats for eatTokens of busy work with both forks held,
+// then thinks for thinkTokens without them. BenchmarkMain repeats the run at several
+// thread counts; fewer forks means neighbours collide more often.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ForkBenchmark {
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({ "SEMAPHORE", "REENTRANT_LOCK", "STAMPED_LOCK", "SYNCHRONIZED", "CAS" })
+        public TwoForks.Primitive primitive;
+
+        @Param({ "5", "64" })
+        public int forks;
+
+        @Param({ "0", "50" })
+        public int eatTokens;
+
+        @Param({ "50" })
+        public int thinkTokens;
+
+        TwoForks table;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            table = primitive.create(forks);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Diner {
+        int seat;
+        Runnable meal;
+
+        @Setup(Level.Trial)
+        public void setUp(Table table, ThreadParams threads) {
+            seat = threads.getThreadIndex() % table.forks;
+            long tokens = table.eatTokens;
+            meal = () -> Blackhole.consumeCPU(tokens);
+        }
+    }
+
+    @Benchmark
+    public void dine(Table table, Diner diner) {
+        table.table.dine(diner.seat, diner.meal);
+        Blackhole.consumeCPU(table.thinkTokens);
+    }
+}
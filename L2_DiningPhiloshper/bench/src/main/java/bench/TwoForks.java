@@ -0,0 +1,219 @@
+package bench;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+// The pickUpChopsticks / putDownChopsticks pattern on a ring of forks: diner d needs
+// forks d and d + 1, taken lower id first so no primitive can deadlock. Each
+// implementation uses one primitive per fork; dine() holds both forks while the meal runs.
+public abstract class TwoForks {
+    public enum Primitive {
+        SEMAPHORE, REENTRANT_LOCK, STAMPED_LOCK, SYNCHRONIZED, CAS;
+
+        public TwoForks create(int forks) {
+            switch (this) {
+                case SEMAPHORE:
+                    return new Semaphores(forks);
+                case REENTRANT_LOCK:
+                    return new ReentrantLocks(forks);
+                case STAMPED_LOCK:
+                    return new StampedLocks(forks);
+                case SYNCHRONIZED:
+                    return new Monitors(forks);
+                case CAS:
+                    return new CasOwners(forks);
+                default:
+                    throw new IllegalArgumentException("Unknown primitive " + this);
+            }
+        }
+    }
+
+    final int forks;
+
+    TwoForks(int forks) {
+        this.forks = forks;
+    }
+
+    public int forks() {
+        return forks;
+    }
+
+    public abstract void dine(int diner, Runnable meal);
+
+    // True if nobody holds the fork. Only reliable while no one is dining; synchronized
+    // can't be inspected from outside, and monitor exit can't be skipped anyway.
+    public abstract boolean isFree(int fork);
+
+    int first(int diner) {
+        return Math.min(diner, (diner + 1) % forks);
+    }
+
+    int second(int diner) {
+        return Math.max(diner, (diner + 1) % forks);
+    }
+
+    static final class Semaphores extends TwoForks {
+        private final Semaphore[] semaphores;
+
+        Semaphores(int forks) {
+            super(forks);
+            semaphores = new Semaphore[forks];
+            for (int f = 0; f < forks; f++) {
+                semaphores[f] = new Semaphore(1);
+            }
+        }
+
+        @Override
+        public void dine(int diner, Runnable meal) {
+            Semaphore a = semaphores[first(diner)];
+            Semaphore b = semaphores[second(diner)];
+            a.acquireUninterruptibly();
+            b.acquireUninterruptibly();
+            try {
+                meal.run();
+            } finally {
+                b.release();
+                a.release();
+            }
+        }
+
+        @Override
+        public boolean isFree(int fork) {
+            return semaphores[fork].availablePermits() == 1;
+        }
+    }
+
+    static final class ReentrantLocks extends TwoForks {
+        private final ReentrantLock[] locks;
+
+        ReentrantLocks(int forks) {
+            super(forks);
+            locks = new ReentrantLock[forks];
+            for (int f = 0; f < forks; f++) {
+                locks[f] = new ReentrantLock();
+            }
+        }
+
+        @Override
+        public void dine(int diner, Runnable meal) {
+            ReentrantLock a = locks[first(diner)];
+            ReentrantLock b = locks[second(diner)];
+            a.lock();
+            b.lock();
+            try {
+                meal.run();
+            } finally {
+                b.unlock();
+                a.unlock();
+            }
+        }
+
+        @Override
+        public boolean isFree(int fork) {
+            return !locks[fork].isLocked();
+        }
+    }
+
+    static final class StampedLocks extends TwoForks {
+        private final StampedLock[] locks;
+
+        StampedLocks(int forks) {
+            super(forks);
+            locks = new StampedLock[forks];
+            for (int f = 0; f < forks; f++) {
+                locks[f] = new StampedLock();
+            }
+        }
+
+        @Override
+        public void dine(int diner, Runnable meal) {
+            StampedLock a = locks[first(diner)];
+            StampedLock b = locks[second(diner)];
+            long stampA = a.writeLock();
+            long stampB = b.writeLock();
+            try {
+                meal.run();
+            } finally {
+                b.unlockWrite(stampB);
+                a.unlockWrite(stampA);
+            }
+        }
+
+        @Override
+        public boolean isFree(int fork) {
+            return !locks[fork].isWriteLocked();
+        }
+    }
+
+    static final class Monitors extends TwoForks {
+        private final Object[] monitors;
+
+        Monitors(int forks) {
+            super(forks);
+            monitors = new Object[forks];
+            for (int f = 0; f < forks; f++) {
+                monitors[f] = new Object();
+            }
+        }
+
+        @Override
+        public void dine(int diner, Runnable meal) {
+            synchronized (monitors[first(diner)]) {
+                synchronized (monitors[second(diner)]) {
+                    meal.run();
+                }
+            }
+        }
+
+        @Override
+        public boolean isFree(int fork) {
+            return true;
+        }
+    }
+
+    // Like the lab's CAS strategy: claim both owners or roll back, spin briefly, then yield
+    static final class CasOwners extends TwoForks {
+        private static final int SPINS = 32;
+
+        private final AtomicIntegerArray owners;
+
+        CasOwners(int forks) {
+            super(forks);
+            owners = new AtomicIntegerArray(forks);
+        }
+
+        @Override
+        public void dine(int diner, Runnable meal) {
+            int a = first(diner);
+            int b = second(diner);
+            int me = diner + 1;
+            int attempts = 0;
+            while (true) {
+                if (owners.compareAndSet(a, 0, me)) {
+                    if (owners.compareAndSet(b, 0, me)) {
+                        break;
+                    }
+                    owners.set(a, 0);
+                }
+                if (++attempts < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            try {
+                meal.run();
+            } finally {
+                owners.set(b, 0);
+                owners.set(a, 0);
+            }
+        }
+
+        @Override
+        public boolean isFree(int fork) {
+            return owners.get(fork) == 0;
+        }
+    }
+}
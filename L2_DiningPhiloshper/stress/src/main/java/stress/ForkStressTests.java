@@ -0,0 +1,173 @@
+package stress;
+
+import bench.TwoForks;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+// jcstress tests for the TwoForks primitives. Two neighbouring diners on a ring of three
+// forks share fork 1, and each does an unsynchronised read-increment-write of a counter
+// while dining. Once both are done the arbiter reports:
+//   r1 - the counter: 1 means both meals overlapped (mutual exclusion broken)
+//   r2 - how many of the three forks are free: less than 3 means a release was lost
+// synchronized is included for mutual exclusion only; its monitors can't be inspected.
+public class ForkStressTests {
+    private ForkStressTests() {
+    }
+
+    // Shared body of every test: the state is the table plus the counter it protects
+    abstract static class Meals {
+        final TwoForks table;
+        int counter;
+
+        Meals(TwoForks.Primitive primitive) {
+            table = primitive.create(3);
+        }
+
+        void dine(int diner) {
+            table.dine(diner, () -> {
+                int seen = counter;
+                counter = seen + 1;
+            });
+        }
+
+        void check(II_Result r) {
+            r.r1 = counter;
+            int free = 0;
+            for (int f = 0; f < table.forks(); f++) {
+                if (table.isFree(f)) {
+                    free++;
+                }
+            }
+            r.r2 = free;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 3", expect = Expect.ACCEPTABLE, desc = "Meals were exclusive and every fork came back")
+    @Outcome(id = "1, .*", expect = Expect.FORBIDDEN, desc = "Both diners held fork 1 at once")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "A fork was never released")
+    @State
+    public static class Semaphore extends Meals {
+        public Semaphore() {
+            super(TwoForks.Primitive.SEMAPHORE);
+        }
+
+        @Actor
+        public void left() {
+            dine(0);
+        }
+
+        @Actor
+        public void right() {
+            dine(1);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            check(r);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 3", expect = Expect.ACCEPTABLE, desc = "Meals were exclusive and every fork came back")
+    @Outcome(id = "1, .*", expect = Expect.FORBIDDEN, desc = "Both diners held fork 1 at once")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "A fork was never released")
+    @State
+    public static class ReentrantLock extends Meals {
+        public ReentrantLock() {
+            super(TwoForks.Primitive.REENTRANT_LOCK);
+        }
+
+        @Actor
+        public void left() {
+            dine(0);
+        }
+
+        @Actor
+        public void right() {
+            dine(1);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            check(r);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 3", expect = Expect.ACCEPTABLE, desc = "Meals were exclusive and every fork came back")
+    @Outcome(id = "1, .*", expect = Expect.FORBIDDEN, desc = "Both diners held fork 1 at once")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "A fork was never released")
+    @State
+    public static class StampedLock extends Meals {
+        public StampedLock() {
+            super(TwoForks.Primitive.STAMPED_LOCK);
+        }
+
+        @Actor
+        public void left() {
+            dine(0);
+        }
+
+        @Actor
+        public void right() {
+            dine(1);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            check(r);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 3", expect = Expect.ACCEPTABLE, desc = "Meals were exclusive")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both diners held fork 1 at once")
+    @State
+    public static class Synchronized extends Meals {
+        public Synchronized() {
+            super(TwoForks.Primitive.SYNCHRONIZED);
+        }
+
+        @Actor
+        public void left() {
+            dine(0);
+        }
+
+        @Actor
+        public void right() {
+            dine(1);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            check(r);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 3", expect = Expect.ACCEPTABLE, desc = "Meals were exclusive and every fork came back")
+    @Outcome(id = "1, .*", expect = Expect.FORBIDDEN, desc = "Both diners held fork 1 at once")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "A fork was never released")
+    @State
+    public static class Cas extends Meals {
+        public Cas() {
+            super(TwoForks.Primitive.CAS);
+        }
+
+        @Actor
+        public void left() {
+            dine(0);
+        }
+
+        @Actor
+        public void right() {
+            dine(1);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            check(r);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import java.awt.Point;
+import java.util.*;
+import java.util.List;
+
+// Convex hull maintained under point insertions and deletions.
+// The hull is kept as two x-monotone chains (one per side) in TreeMaps keyed by x,
+// so an insertion is a floor/ceiling lookup to reject interior points plus an
+// amortised pop of the chain neighbours that stop being convex.
+public class DynamicConvexHull {
+    private final Chain upper = new Chain(1);
+    private final Chain lower = new Chain(-1);
+
+    // Multiplicity of every inserted point, needed to rebuild after deleting a hull vertex
+    private final Map<Long, Integer> allPoints = new HashMap<>();
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Adds a point; returns true if the hull changed
+    public boolean insert(int x, int y) {
+        allPoints.merge(pack(x, y), 1, Integer::sum);
+        size++;
+        boolean changedUpper = upper.insert(x, y);
+        boolean changedLower = lower.insert(x, y);
+        return changedUpper || changedLower;
+    }
+
+    public boolean insert(Point p) {
+        return insert(p.x, p.y);
+    }
+
+    // Removes one copy of a point; returns true if the hull changed.
+    // Interior points are dropped in O(1); removing a hull vertex rebuilds the chains.
+    public boolean remove(int x, int y) {
+        long key = pack(x, y);
+        Integer count = allPoints.get(key);
+        if (count == null) {
+            return false;
+        }
+        size--;
+        if (count > 1) {
+            allPoints.put(key, count - 1);
+            return false;
+        }
+        allPoints.remove(key);
+        if (!upper.isVertex(x, y) && !lower.isVertex(x, y)) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    public boolean remove(Point p) {
+        return remove(p.x, p.y);
+    }
+
+    // True if the point lies inside or on the boundary of the current hull
+    public boolean contains(int x, int y) {
+        return !isEmpty() && upper.covers(x, y) && lower.covers(x, y);
+    }
+
+    public void clear() {
+        upper.points.clear();
+        lower.points.clear();
+        allPoints.clear();
+        size = 0;
+    }
+
+    // Hull vertices in the same turn direction as the Graham scan output
+    public List<Point> getHull() {
+        List<Point> hull = new ArrayList<>();
+        // Lower chain left to right, then upper chain right to left
+        for (Map.Entry<Integer, Integer> e : lower.points.entrySet()) {
+            hull.add(new Point(e.getKey(), ~e.getValue()));
+        }
+        for (Map.Entry<Integer, Integer> e : upper.points.descendingMap().entrySet()) {
+            Point p = new Point(e.getKey(), e.getValue());
+            if (!p.equals(hull.get(hull.size() - 1)) && !p.equals(hull.get(0))) {
+                hull.add(p);
+            }
+        }
+        return hull;
+    }
+
+    private void rebuild() {
+        upper.points.clear();
+        lower.points.clear();
+        for (long key : allPoints.keySet()) {
+            int x = (int) (key >> 32);
+            int y = (int) key;
+            upper.insert(x, y);
+            lower.insert(x, y);
+        }
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    // Exact for full-range int coordinates, whose differences can overflow a plain long product
+    private static long cross(long ax, long ay, long bx, long by, long cx, long cy) {
+        return HullEngine.cross(ax, ay, bx, by, cx, cy);
+    }
+
+    // One x-monotone side of the hull. The lower chain stores ~y (-y - 1, which unlike -y
+    // cannot overflow) so both sides share the "keep the maximum" logic.
+    private static class Chain {
+        private final TreeMap<Integer, Integer> points = new TreeMap<>();
+        private final int sign;
+
+        Chain(int sign) {
+            this.sign = sign;
+        }
+
+        private int scale(int y) {
+            return sign > 0 ? y : ~y;
+        }
+
+        boolean isVertex(int x, int y) {
+            Integer stored = points.get(x);
+            return stored != null && stored == scale(y);
+        }
+
+        boolean covers(int x, int y) {
+            return coversScaled(x, scale(y));
+        }
+
+        private boolean coversScaled(int x, int y) {
+            Integer exact = points.get(x);
+            if (exact != null) {
+                return y <= exact;
+            }
+            Map.Entry<Integer, Integer> left = points.lowerEntry(x);
+            Map.Entry<Integer, Integer> right = points.higherEntry(x);
+            if (left == null || right == null) {
+                return false;
+            }
+            return cross(left.getKey(), left.getValue(), right.getKey(), right.getValue(), x, y) <= 0;
+        }
+
+        boolean insert(int x, int yRaw) {
+            int y = scale(yRaw);
+            if (coversScaled(x, y)) {
+                return false;
+            }
+            points.put(x, y);
+
+            // Pop right neighbours that no longer make a strict right turn
+            Map.Entry<Integer, Integer> r1 = points.higherEntry(x);
+            while (r1 != null) {
+                Map.Entry<Integer, Integer> r2 = points.higherEntry(r1.getKey());
+                if (r2 == null || cross(x, y, r1.getKey(), r1.getValue(), r2.getKey(), r2.getValue()) < 0) {
+                    break;
+                }
+                points.remove(r1.getKey());
+                r1 = r2;
+            }
+
+            // Same on the left side
+            Map.Entry<Integer, Integer> l1 = points.lowerEntry(x);
+            while (l1 != null) {
+                Map.Entry<Integer, Integer> l2 = points.lowerEntry(l1.getKey());
+                if (l2 == null || cross(l2.getKey(), l2.getValue(), l1.getKey(), l1.getValue(), x, y) < 0) {
+                    break;
+                }
+                points.remove(l1.getKey());
+                l1 = l2;
+            }
+            return true;
+        }
+    }
+}
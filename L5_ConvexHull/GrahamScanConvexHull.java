@@ -1,5 +1,8 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import javax.swing.*;
@@ -7,16 +10,22 @@ import javax.swing.*;
 public class GrahamScanConvexHull extends JFrame {
     private List<Point> points = new ArrayList<>();
     private List<Point> convexHull = new ArrayList<>();
-    private List<List<Point>> steps = new ArrayList<>();
-    private List<Point> currentVertices = new ArrayList<>(); // Track current vertex for each step
+    private HullStepLog stepLog = new HullStepLog(); // Push/pop log of the last scan, replayed per step
+    private DynamicConvexHull dynamicHull = new DynamicConvexHull(); // Incremental hull for point insertions
     private int currentStep = -1;
     private boolean showSteps = false;
     private JButton computeButton;
     private JButton resetButton;
+    private JButton loadButton;
+    private JButton load3dButton;
     private JButton nextStepButton;
     private JButton prevStepButton;
     private JCheckBox showStepsCheckBox;
+    private JCheckBox showQueriesCheckBox;
     private JLabel statusLabel;
+    private DrawingPanel drawingPanel;
+    private double[] xyz3d; // Loaded 3D points, shown projected onto the XY plane
+    private int[] hull3dTriangles;
 
     public GrahamScanConvexHull() {
         setTitle("Graham Scan Convex Hull");
@@ -27,9 +36,12 @@ public class GrahamScanConvexHull extends JFrame {
         JPanel controlPanel = new JPanel();
         computeButton = new JButton("Compute Convex Hull");
         resetButton = new JButton("Reset");
+        loadButton = new JButton("Load Points");
+        load3dButton = new JButton("Load 3D");
         nextStepButton = new JButton("Next Step");
         prevStepButton = new JButton("Previous Step");
         showStepsCheckBox = new JCheckBox("Show Steps");
+        showQueriesCheckBox = new JCheckBox("Diameter / Min Box");
         statusLabel = new JLabel("Click to add points");
 
         nextStepButton.setEnabled(false);
@@ -37,14 +49,17 @@ public class GrahamScanConvexHull extends JFrame {
 
         controlPanel.add(computeButton);
         controlPanel.add(resetButton);
+        controlPanel.add(loadButton);
+        controlPanel.add(load3dButton);
         controlPanel.add(prevStepButton);
         controlPanel.add(nextStepButton);
         controlPanel.add(showStepsCheckBox);
+        controlPanel.add(showQueriesCheckBox);
         controlPanel.add(statusLabel);
 
         add(controlPanel, BorderLayout.SOUTH);
 
-        DrawingPanel drawingPanel = new DrawingPanel();
+        drawingPanel = new DrawingPanel();
         add(drawingPanel, BorderLayout.CENTER);
 
         // Add action listeners
@@ -63,9 +78,9 @@ public class GrahamScanConvexHull extends JFrame {
                 currentStep = 0;
                 nextStepButton.setEnabled(true);
                 prevStepButton.setEnabled(false);
-                statusLabel.setText("Step 1 of " + steps.size());
+                statusLabel.setText("Step 1 of " + stepLog.stepCount());
             } else {
-                currentStep = steps.size() - 1;
+                currentStep = stepLog.stepCount() - 1;
                 nextStepButton.setEnabled(false);
                 prevStepButton.setEnabled(false);
                 statusLabel.setText("Convex Hull Computed");
@@ -77,8 +92,11 @@ public class GrahamScanConvexHull extends JFrame {
         resetButton.addActionListener(e -> {
             points.clear();
             convexHull.clear();
-            steps.clear();
-            currentVertices.clear();
+            dynamicHull.clear();
+            stepLog.clear();
+            xyz3d = null;
+            hull3dTriangles = null;
+            drawingPanel.pointsReplaced();
             currentStep = -1;
             nextStepButton.setEnabled(false);
             prevStepButton.setEnabled(false);
@@ -86,14 +104,69 @@ public class GrahamScanConvexHull extends JFrame {
             repaint();
         });
 
+        loadButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            try {
+                List<Point> loaded = PointLoader.load(chooser.getSelectedFile().toPath());
+                points.addAll(loaded);
+                drawingPanel.fitToPoints();
+                if (!convexHull.isEmpty()) {
+                    computeConvexHull();
+                    currentStep = showSteps ? 0 : stepLog.stepCount() - 1;
+                }
+                statusLabel.setText("Loaded " + loaded.size() + " points");
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(),
+                        "Could not load points", JOptionPane.ERROR_MESSAGE);
+            }
+            repaint();
+        });
+
+        load3dButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            try {
+                double[] xyz = PointLoader.loadXyz(chooser.getSelectedFile().toPath());
+                int n = xyz.length / 3;
+                long start = System.nanoTime();
+                int[] triangles = QuickHull3D.parallelHull(xyz, n);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                // Replace the 2D points with the XY projection of the 3D points
+                xyz3d = xyz;
+                hull3dTriangles = triangles;
+                points.clear();
+                for (int i = 0; i < n; i++) {
+                    points.add(new Point((int) Math.round(xyz[3 * i]), (int) Math.round(xyz[3 * i + 1])));
+                }
+                convexHull.clear();
+                dynamicHull.clear();
+                stepLog.clear();
+                currentStep = -1;
+                drawingPanel.pointsReplaced();
+                drawingPanel.fitToPoints();
+                statusLabel.setText(String.format("3D hull: %d faces, %d vertices (%.2f s)",
+                        triangles.length / 3, QuickHull3D.vertices(triangles).length, seconds));
+            } catch (IOException | IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(),
+                        "Could not build 3D hull", JOptionPane.ERROR_MESSAGE);
+            }
+            repaint();
+        });
+
         nextStepButton.addActionListener(e -> {
-            if (currentStep < steps.size() - 1) {
+            if (currentStep < stepLog.stepCount() - 1) {
                 currentStep++;
                 prevStepButton.setEnabled(true);
-                if (currentStep == steps.size() - 1) {
+                if (currentStep == stepLog.stepCount() - 1) {
                     nextStepButton.setEnabled(false);
                 }
-                statusLabel.setText("Step " + (currentStep + 1) + " of " + steps.size());
+                statusLabel.setText("Step " + (currentStep + 1) + " of " + stepLog.stepCount());
                 repaint();
             }
         });
@@ -105,21 +178,30 @@ public class GrahamScanConvexHull extends JFrame {
                 if (currentStep == 0) {
                     prevStepButton.setEnabled(false);
                 }
-                statusLabel.setText("Step " + (currentStep + 1) + " of " + steps.size());
+                statusLabel.setText("Step " + (currentStep + 1) + " of " + stepLog.stepCount());
                 repaint();
             }
         });
 
+        showQueriesCheckBox.addActionListener(e -> {
+            if (showQueriesCheckBox.isSelected() && convexHull.size() >= 3) {
+                HullQueries queries = new HullQueries(convexHull);
+                statusLabel.setText(String.format("Diameter %.1f, width %.1f, min box area %.1f",
+                        queries.diameter(), queries.width(), queries.minAreaRectangle().area));
+            }
+            repaint();
+        });
+
         showStepsCheckBox.addActionListener(e -> {
             showSteps = showStepsCheckBox.isSelected();
-            if (steps.size() > 0) {
+            if (stepLog.stepCount() > 0) {
                 if (showSteps) {
                     currentStep = 0;
                     nextStepButton.setEnabled(true);
                     prevStepButton.setEnabled(false);
-                    statusLabel.setText("Step 1 of " + steps.size());
+                    statusLabel.setText("Step 1 of " + stepLog.stepCount());
                 } else {
-                    currentStep = steps.size() - 1;
+                    currentStep = stepLog.stepCount() - 1;
                     nextStepButton.setEnabled(false);
                     prevStepButton.setEnabled(false);
                     statusLabel.setText("Convex Hull Computed");
@@ -129,7 +211,7 @@ public class GrahamScanConvexHull extends JFrame {
         });
     }
 
-    private Point findLowestPoint() {
+    private static Point findLowestPoint(List<Point> points) {
         Point lowest = points.get(0);
         for (Point p : points) {
             if (p.y > lowest.y || (p.y == lowest.y && p.x < lowest.x)) {
@@ -139,27 +221,41 @@ public class GrahamScanConvexHull extends JFrame {
         return lowest;
     }
 
-    private int orientation(Point p, Point q, Point r) {
-        int val = (q.y - p.y) * (r.x - q.x) - (q.x - p.x) * (r.y - q.y);
+    // Exact for any int coordinates, so loaded files need no range limit
+    static int orientation(Point p, Point q, Point r) {
+        long val = HullEngine.cross(p.x, p.y, q.x, q.y, r.x, r.y);
         if (val == 0)
             return 0; // collinear
-        return (val > 0) ? 1 : 2; // clockwise or counterclockwise
+        return (val < 0) ? 1 : 2; // clockwise or counterclockwise
     }
 
-    private int distanceSquared(Point p1, Point p2) {
-        return (p1.x - p2.x) * (p1.x - p2.x) + (p1.y - p2.y) * (p1.y - p2.y);
+    // Orders points on one ray from p1 the same way as their distance does, without the
+    // squares that overflow for full-range coordinates
+    private static long distanceAlongRay(Point p1, Point p2) {
+        return Math.abs((long) p1.x - p2.x) + Math.abs((long) p1.y - p2.y);
     }
 
     private void computeConvexHull() {
-        steps.clear();
         convexHull.clear();
-        currentVertices.clear();
+        stepLog.clear();
 
         if (points.size() < 3)
             return;
 
+        convexHull = grahamScan(points, stepLog);
+
+        // Seed the incremental hull so later clicks don't need a full recompute
+        dynamicHull.clear();
+        for (Point p : points) {
+            dynamicHull.insert(p);
+        }
+    }
+
+    // Graham scan over at least 3 points. When log is non-null every push/pop and
+    // step boundary is recorded into it for step-by-step display.
+    static List<Point> grahamScan(List<Point> points, HullStepLog log) {
         // Find the lowest point
-        Point lowestPoint = findLowestPoint();
+        Point lowestPoint = findLowestPoint(points);
 
         // Sort points based on polar angle with respect to the lowest point
         Point finalLowestPoint = lowestPoint;
@@ -167,125 +263,276 @@ public class GrahamScanConvexHull extends JFrame {
         sortedPoints.sort((p1, p2) -> {
             int o = orientation(finalLowestPoint, p1, p2);
             if (o == 0) {
-                return distanceSquared(finalLowestPoint, p1) - distanceSquared(finalLowestPoint, p2);
+                return Long.compare(distanceAlongRay(finalLowestPoint, p1), distanceAlongRay(finalLowestPoint, p2));
             }
             return (o == 2) ? -1 : 1;
         });
+        if (log != null) {
+            log.reset(sortedPoints);
+        }
 
-        // Initialize convex hull with first 2 points
-        Stack<Point> stack = new Stack<>();
-        stack.push(sortedPoints.get(0));
-        stack.push(sortedPoints.get(1));
-
-        // First step with first 2 points
-        steps.add(new ArrayList<>(stack));
-        currentVertices.add(sortedPoints.get(2)); // Next vertex to be considered
+        // Initialize convex hull with first 2 points (stack holds indices into sortedPoints)
+        int[] stack = new int[sortedPoints.size()];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = 1;
+
+        // First step with first 2 points, next vertex to be considered highlighted
+        if (log != null) {
+            log.push(0);
+            log.push(1);
+            log.markStep(2);
+        }
 
         // Process remaining points
         for (int i = 2; i < sortedPoints.size(); i++) {
             Point currentVertex = sortedPoints.get(i);
 
-            // Before processing this vertex, save its state
-            List<Point> beforeHull = new ArrayList<>(stack);
-            steps.add(new ArrayList<>(beforeHull));
-            currentVertices.add(currentVertex);
+            // Before processing this vertex
+            if (log != null) {
+                log.markStep(i);
+            }
 
             // Remove points that make non-left turns
-            while (stack.size() > 1 && orientation(stack.get(stack.size() - 2),
-                    stack.peek(), currentVertex) != 2) {
-                stack.pop();
+            while (top > 1 && orientation(sortedPoints.get(stack[top - 2]),
+                    sortedPoints.get(stack[top - 1]), currentVertex) != 2) {
+                top--;
+                if (log != null) {
+                    log.pop(stack[top]);
+                }
             }
 
             // Add current point to hull
-            stack.push(currentVertex);
+            stack[top++] = i;
 
-            // Prepare next vertex to consider (if any)
-            Point nextVertex = (i < sortedPoints.size() - 1) ? sortedPoints.get(i + 1) : null;
-
-            // After processing, save the state
-            List<Point> afterHull = new ArrayList<>(stack);
-            steps.add(new ArrayList<>(afterHull));
-            currentVertices.add(nextVertex);
+            // After processing, highlight the next vertex to consider (if any)
+            if (log != null) {
+                log.push(i);
+                log.markStep((i < sortedPoints.size() - 1) ? i + 1 : -1);
+            }
         }
 
-        // Transfer stack to convexHull
-        convexHull = new ArrayList<>(stack);
-
         // Final hull - no vertex highlighted
-        steps.add(new ArrayList<>(convexHull));
-        currentVertices.add(null);
+        if (log != null) {
+            log.markStep(-1);
+        }
+
+        List<Point> hull = new ArrayList<>(top);
+        for (int i = 0; i < top; i++) {
+            hull.add(sortedPoints.get(stack[i]));
+        }
+        return hull;
     }
 
     class DrawingPanel extends JPanel {
+        private final PointLayer pointLayer = new PointLayer();
+
+        // View transform: screen = (world - view) * scale
+        private double viewX = 0;
+        private double viewY = 0;
+        private double scale = 1;
+        private Point dragStart;
+
         public DrawingPanel() {
             setBackground(Color.WHITE);
 
-            // Mouse listener to add points
-            addMouseListener(new MouseAdapter() {
+            MouseAdapter mouseHandler = new MouseAdapter() {
+                // Mouse click adds a point
                 @Override
                 public void mouseClicked(MouseEvent e) {
-                    points.add(new Point(e.getX(), e.getY()));
+                    Point p = new Point((int) Math.round(viewX + e.getX() / scale),
+                            (int) Math.round(viewY + e.getY() / scale));
+                    points.add(p);
+                    boolean hullChanged = false;
 
                     // Automatically update convex hull if already computed
                     if (!convexHull.isEmpty()) {
-                        computeConvexHull();
                         if (showSteps) {
+                            // Stepping needs the full scan history
+                            computeConvexHull();
+                            currentStep = 0;
+                            statusLabel.setText("Step 1 of " + stepLog.stepCount());
+                            hullChanged = true;
+                        } else if (dynamicHull.insert(p)) {
+                            // Point outside the hull: splice it in without re-sorting
+                            convexHull = dynamicHull.getHull();
+                            stepLog.reset(convexHull);
+                            for (int i = 0; i < convexHull.size(); i++) {
+                                stepLog.push(i);
+                            }
+                            stepLog.markStep(-1);
                             currentStep = 0;
-                            statusLabel.setText("Step 1 of " + steps.size());
-                        } else {
-                            currentStep = steps.size() - 1;
                             statusLabel.setText("Convex Hull Updated");
+                            hullChanged = true;
+                        } else {
+                            statusLabel.setText("Point inside hull");
                         }
                     } else {
                         statusLabel.setText("Points: " + points.size());
                     }
 
-                    repaint();
+                    if (hullChanged) {
+                        repaint();
+                    } else {
+                        // Only the new dot needs redrawing. It is drawn at the rounded world
+                        // point, which at high zoom can be far from the cursor.
+                        repaint(toScreenX(p.x) - 5, toScreenY(p.y) - 5, 11, 11);
+                    }
+                }
+
+                // Dragging pans the view
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragStart = e.getPoint();
                 }
-            });
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (dragStart == null) {
+                        return;
+                    }
+                    viewX -= (e.getX() - dragStart.x) / scale;
+                    viewY -= (e.getY() - dragStart.y) / scale;
+                    dragStart = e.getPoint();
+                    viewChanged();
+                }
+
+                // Mouse wheel zooms around the cursor
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    double worldX = viewX + e.getX() / scale;
+                    double worldY = viewY + e.getY() / scale;
+                    scale *= Math.pow(1.1, -e.getPreciseWheelRotation());
+                    viewX = worldX - e.getX() / scale;
+                    viewY = worldY - e.getY() / scale;
+                    viewChanged();
+                }
+            };
+            addMouseListener(mouseHandler);
+            addMouseMotionListener(mouseHandler);
+            addMouseWheelListener(mouseHandler);
+        }
+
+        // Call when points were removed or replaced rather than appended
+        void pointsReplaced() {
+            pointLayer.invalidate();
+        }
+
+        // Pans and zooms so every point is visible
+        void fitToPoints() {
+            if (points.isEmpty()) {
+                return;
+            }
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+            for (Point p : points) {
+                minX = Math.min(minX, p.x);
+                minY = Math.min(minY, p.y);
+                maxX = Math.max(maxX, p.x);
+                maxY = Math.max(maxY, p.y);
+            }
+            double margin = 20;
+            double spanX = Math.max(1.0, (double) maxX - minX);
+            double spanY = Math.max(1.0, (double) maxY - minY);
+            scale = Math.min((getWidth() - 2 * margin) / spanX, (getHeight() - 2 * margin) / spanY);
+            if (scale <= 0) {
+                scale = 1;
+            }
+            viewX = minX - margin / scale;
+            viewY = minY - margin / scale;
+            viewChanged();
+        }
+
+        private void viewChanged() {
+            pointLayer.invalidate();
+            repaint();
+        }
+
+        private int toScreenX(double x) {
+            return (int) Math.round((x - viewX) * scale);
+        }
+
+        private int toScreenY(double y) {
+            return (int) Math.round((y - viewY) * scale);
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2d = (Graphics2D) g;
+
+            // Draw all points from the cached layer
+            g2d.drawImage(pointLayer.render(points, getWidth(), getHeight(), viewX, viewY, scale), 0, 0, null);
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            // Draw all points
-            g2d.setColor(Color.BLACK);
-            for (Point p : points) {
-                g2d.fillOval(p.x - 4, p.y - 4, 8, 8);
+            // Edges of the 3D hull, projected onto the XY plane
+            if (hull3dTriangles != null) {
+                g2d.setColor(Color.MAGENTA);
+                g2d.setStroke(new BasicStroke(1));
+                for (int t = 0; t < hull3dTriangles.length; t += 3) {
+                    for (int k = 0; k < 3; k++) {
+                        int a = hull3dTriangles[t + k];
+                        int b = hull3dTriangles[t + (k + 1) % 3];
+                        g2d.drawLine(toScreenX(xyz3d[3 * a]), toScreenY(xyz3d[3 * a + 1]),
+                                toScreenX(xyz3d[3 * b]), toScreenY(xyz3d[3 * b + 1]));
+                    }
+                }
             }
 
             // Draw the convex hull steps or final hull
-            if (currentStep >= 0 && currentStep < steps.size()) {
-                List<Point> currentHull = steps.get(currentStep);
+            if (currentStep >= 0 && currentStep < stepLog.stepCount()) {
+                stepLog.seek(currentStep);
+                int hullSize = stepLog.hullSize();
 
                 // Draw connections between points
                 g2d.setColor(Color.RED);
                 g2d.setStroke(new BasicStroke(2));
 
-                for (int i = 0; i < currentHull.size(); i++) {
-                    Point current = currentHull.get(i);
-                    Point next = currentHull.get((i + 1) % currentHull.size());
-                    g2d.drawLine(current.x, current.y, next.x, next.y);
+                for (int i = 0; i < hullSize; i++) {
+                    Point current = stepLog.hullPoint(i);
+                    Point next = stepLog.hullPoint((i + 1) % hullSize);
+                    g2d.drawLine(toScreenX(current.x), toScreenY(current.y), toScreenX(next.x), toScreenY(next.y));
                 }
 
                 // Highlight hull points
                 g2d.setColor(Color.RED);
-                for (Point p : currentHull) {
-                    g2d.fillOval(p.x - 6, p.y - 6, 12, 12);
+                for (int i = 0; i < hullSize; i++) {
+                    Point p = stepLog.hullPoint(i);
+                    int x = toScreenX(p.x);
+                    int y = toScreenY(p.y);
+                    g2d.fillOval(x - 6, y - 6, 12, 12);
                     g2d.setColor(Color.WHITE);
-                    g2d.fillOval(p.x - 4, p.y - 4, 8, 8);
+                    g2d.fillOval(x - 4, y - 4, 8, 8);
                     g2d.setColor(Color.RED);
                 }
 
                 // Highlight current vertex with yellow
-                if (currentStep < currentVertices.size() && currentVertices.get(currentStep) != null) {
-                    Point currentVertex = currentVertices.get(currentStep);
+                Point currentVertex = stepLog.currentVertex(currentStep);
+                if (currentVertex != null) {
                     g2d.setColor(Color.YELLOW);
-                    g2d.fillOval(currentVertex.x - 7, currentVertex.y - 7, 14, 14);
+                    g2d.fillOval(toScreenX(currentVertex.x) - 7, toScreenY(currentVertex.y) - 7, 14, 14);
+                }
+            }
+
+            // Farthest pair and minimum-area enclosing rectangle of the final hull
+            if (showQueriesCheckBox.isSelected() && convexHull.size() >= 3
+                    && currentStep == stepLog.stepCount() - 1) {
+                HullQueries queries = new HullQueries(convexHull);
+                int[] pair = queries.farthestPair();
+                Point a = convexHull.get(pair[0]);
+                Point b = convexHull.get(pair[1]);
+                g2d.setColor(Color.BLUE);
+                g2d.drawLine(toScreenX(a.x), toScreenY(a.y), toScreenX(b.x), toScreenY(b.y));
+
+                Point2D.Double[] corners = queries.minAreaRectangle().corners;
+                Path2D.Double box = new Path2D.Double();
+                box.moveTo((corners[0].x - viewX) * scale, (corners[0].y - viewY) * scale);
+                for (int i = 1; i < corners.length; i++) {
+                    box.lineTo((corners[i].x - viewX) * scale, (corners[i].y - viewY) * scale);
                 }
+                box.closePath();
+                g2d.setColor(new Color(0, 150, 0));
+                g2d.draw(box);
             }
         }
     }
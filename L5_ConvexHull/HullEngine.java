@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+// Headless convex hull over packed int coordinate arrays (no java.awt.Point per vertex).
+// Used for bulk and streaming input where the interactive Graham scan is too heavy.
+final class HullEngine {
+    private HullEngine() {
+    }
+
+    // Returns the indices of the hull vertices, starting at the leftmost point and
+    // turning the same way as orientation() == 2 in GrahamScanConvexHull.
+    // Collinear and duplicate points are dropped.
+    static int[] hull(int[] xs, int[] ys, int n) {
+        if (n == 0) {
+            return new int[0];
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sortByXThenY(order, n, xs, ys);
+
+        // Andrew's monotone chain: lower chain left to right, then upper chain back
+        int[] hull = new int[2 * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int p = order[i];
+            while (k >= 2 && cross(xs, ys, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+        for (int i = n - 2, lowerSize = k + 1; i >= 0; i--) {
+            int p = order[i];
+            while (k >= lowerSize && cross(xs, ys, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+
+        // Last point repeats the first one (except for a single point)
+        int size = (k > 1) ? k - 1 : k;
+        if (size == 2 && xs[hull[0]] == xs[hull[1]] && ys[hull[0]] == ys[hull[1]]) {
+            size = 1;
+        }
+        int[] result = new int[size];
+        System.arraycopy(hull, 0, result, 0, size);
+        return result;
+    }
+
+    // Orientation of a, b, c: positive when counter-clockwise. Differences of int32
+    // coordinates need 33 bits, so once one reaches 2^31 the products can overflow a long;
+    // they are then compared exactly and only the sign (-1, 0 or 1) is returned.
+    static long cross(int[] xs, int[] ys, int a, int b, int c) {
+        return cross(xs[a], ys[a], xs[b], ys[b], xs[c], ys[c]);
+    }
+
+    // The same for points given by coordinate: ints, or differences of ints, as HullQueries uses
+    static long cross(long ax, long ay, long bx, long by, long cx, long cy) {
+        long abx = bx - ax;
+        long aby = by - ay;
+        long acx = cx - ax;
+        long acy = cy - ay;
+        if ((Math.abs(abx) | Math.abs(aby) | Math.abs(acx) | Math.abs(acy)) < 1L << 31) {
+            return abx * acy - aby * acx;
+        }
+        long leftHigh = Math.multiplyHigh(abx, acy);
+        long rightHigh = Math.multiplyHigh(aby, acx);
+        if (leftHigh != rightHigh) {
+            return leftHigh > rightHigh ? 1 : -1;
+        }
+        return Long.signum(Long.compareUnsigned(abx * acy, aby * acx));
+    }
+
+    // Stable LSD radix sort of indices: by y first, then by x, 8 bits per pass.
+    // Passes where every key has the same digit (e.g. the high bytes of small
+    // coordinates) are skipped.
+    static void sortByXThenY(int[] order, int n, int[] xs, int[] ys) {
+        int[] tmp = new int[n];
+        int[] counts = new int[257];
+        int[] src = order;
+        int[] dst = tmp;
+        for (int pass = 0; pass < 8; pass++) {
+            int[] key = (pass < 4) ? ys : xs;
+            if (radixPass(src, dst, n, key, (pass % 4) * 8, counts)) {
+                int[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+        }
+        if (src != order) {
+            System.arraycopy(src, 0, order, 0, n);
+        }
+    }
+
+    // Returns false (and moves nothing) when all keys share the digit
+    private static boolean radixPass(int[] src, int[] dst, int n, int[] key, int shift, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            counts[digit(key[src[i]], shift) + 1]++;
+        }
+        if (counts[digit(key[src[0]], shift) + 1] == n) {
+            return false;
+        }
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            int idx = src[i];
+            dst[counts[digit(key[idx], shift)]++] = idx;
+        }
+        return true;
+    }
+
+    // Flip the sign bit so negative coordinates sort before positive ones
+    private static int digit(int value, int shift) {
+        return ((value ^ 0x80000000) >>> shift) & 0xff;
+    }
+}
@@ -0,0 +1,242 @@
+import java.awt.Point;
+import java.awt.geom.Point2D;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Queries over a finished hull, e.g. the one produced by computeConvexHull.
+// The hull must be strictly convex with every turn in the orientation() == 2 direction,
+// which is what both the Graham scan and HullEngine return.
+//   contains / containsAll - O(log h) point-in-convex-polygon by binary search over the
+//                            fan of triangles around vertex 0; the batch form runs in parallel
+//   farthestPair / width / minAreaRectangle - rotating calipers, O(h)
+public class HullQueries {
+    // Batches smaller than this run on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int h;
+
+    public static class Rectangle {
+        public final Point2D.Double[] corners;
+        public final double area;
+
+        Rectangle(Point2D.Double[] corners, double area) {
+            this.corners = corners;
+            this.area = area;
+        }
+    }
+
+    public HullQueries(List<Point> hull) {
+        h = hull.size();
+        xs = new int[h];
+        ys = new int[h];
+        for (int i = 0; i < h; i++) {
+            xs[i] = hull.get(i).x;
+            ys[i] = hull.get(i).y;
+        }
+    }
+
+    public int size() {
+        return h;
+    }
+
+    // True if (x, y) is inside the hull or on its boundary
+    public boolean contains(int x, int y) {
+        if (h == 0) {
+            return false;
+        }
+        if (h == 1) {
+            return x == xs[0] && y == ys[0];
+        }
+        if (h == 2) {
+            return HullEngine.cross(xs[0], ys[0], xs[1], ys[1], x, y) == 0 && onSegment(0, 1, x, y);
+        }
+
+        // Outside the wedge spanned at vertex 0
+        if (HullEngine.cross(xs[0], ys[0], xs[1], ys[1], x, y) < 0
+                || HullEngine.cross(xs[0], ys[0], xs[h - 1], ys[h - 1], x, y) > 0) {
+            return false;
+        }
+
+        // Find the fan triangle (0, lo, lo + 1) containing the direction of (x, y)
+        int lo = 1;
+        int hi = h - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (HullEngine.cross(xs[0], ys[0], xs[mid], ys[mid], x, y) >= 0) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return HullEngine.cross(xs[lo], ys[lo], xs[lo + 1], ys[lo + 1], x, y) >= 0;
+    }
+
+    // Batch point-in-hull test; inside[i] is set for each query point
+    public void containsAll(int[] qx, int[] qy, int n, boolean[] inside) {
+        if (n < PARALLEL_THRESHOLD) {
+            containsRange(qx, qy, 0, n, inside);
+            return;
+        }
+        int chunks = (n + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * PARALLEL_THRESHOLD;
+            containsRange(qx, qy, from, Math.min(n, from + PARALLEL_THRESHOLD), inside);
+        });
+    }
+
+    // Number of query points inside the hull or on its boundary
+    public long countInside(int[] qx, int[] qy, int n) {
+        return IntStream.range(0, n).parallel().filter(i -> contains(qx[i], qy[i])).count();
+    }
+
+    private void containsRange(int[] qx, int[] qy, int from, int to, boolean[] inside) {
+        for (int i = from; i < to; i++) {
+            inside[i] = contains(qx[i], qy[i]);
+        }
+    }
+
+    // Indices (into the hull) of the two vertices furthest apart
+    public int[] farthestPair() {
+        if (h < 2) {
+            return new int[] { 0, 0 };
+        }
+        int[] best = { 0, 1 };
+        double bestDistance = distanceSquared(0, 1);
+        int j = 1;
+        for (int i = 0; i < h; i++) {
+            int next = (i + 1) % h;
+            // Advance j while it gets further from edge (i, next)
+            while (furtherNext(i, next, j)) {
+                j = (j + 1) % h;
+            }
+            if (distanceSquared(i, j) > bestDistance) {
+                bestDistance = distanceSquared(i, j);
+                best = new int[] { i, j };
+            }
+            if (distanceSquared(next, j) > bestDistance) {
+                bestDistance = distanceSquared(next, j);
+                best = new int[] { next, j };
+            }
+        }
+        return best;
+    }
+
+    public double diameter() {
+        int[] pair = farthestPair();
+        return Math.sqrt(distanceSquared(pair[0], pair[1]));
+    }
+
+    // Minimum distance between two parallel lines enclosing the hull
+    public double width() {
+        if (h < 3) {
+            return 0;
+        }
+        double best = Double.MAX_VALUE;
+        int j = 1;
+        for (int i = 0; i < h; i++) {
+            int next = (i + 1) % h;
+            while (furtherNext(i, next, j)) {
+                j = (j + 1) % h;
+            }
+            best = Math.min(best, area2(i, next, j) / Math.sqrt(distanceSquared(i, next)));
+        }
+        return best;
+    }
+
+    // Smallest-area rectangle enclosing the hull. One side always lies along a hull edge,
+    // so three calipers (furthest along the edge, furthest from it, furthest back) are
+    // rotated once around the hull.
+    public Rectangle minAreaRectangle() {
+        if (h < 3) {
+            Point2D.Double a = new Point2D.Double(xs[0], ys[0]);
+            Point2D.Double b = (h == 2) ? new Point2D.Double(xs[1], ys[1]) : a;
+            return new Rectangle(new Point2D.Double[] { a, b, b, a }, 0);
+        }
+        Rectangle best = null;
+        int right = 1;
+        int top = 1;
+        int left = 1;
+        for (int i = 0; i < h; i++) {
+            int next = (i + 1) % h;
+            long ex = (long) xs[next] - xs[i];
+            long ey = (long) ys[next] - ys[i];
+
+            right = advance(i == 0 ? next : right, ex, ey, 1);
+            if (i == 0) {
+                top = right;
+            }
+            // Normal pointing into the hull is (-ey, ex) for this turn direction
+            top = advance(top, -ey, ex, 1);
+            if (i == 0) {
+                left = top;
+            }
+            left = advance(left, ex, ey, -1);
+
+            double length = Math.sqrt((double) ex * ex + (double) ey * ey);
+            double ux = ex / length;
+            double uy = ey / length;
+            double minU = ((double) xs[left] - xs[i]) * ux + ((double) ys[left] - ys[i]) * uy;
+            double maxU = ((double) xs[right] - xs[i]) * ux + ((double) ys[right] - ys[i]) * uy;
+            double height = ((double) xs[top] - xs[i]) * -uy + ((double) ys[top] - ys[i]) * ux;
+            double area = (maxU - minU) * height;
+
+            if (best == null || area < best.area) {
+                Point2D.Double c0 = new Point2D.Double(xs[i] + ux * minU, ys[i] + uy * minU);
+                Point2D.Double c1 = new Point2D.Double(xs[i] + ux * maxU, ys[i] + uy * maxU);
+                Point2D.Double c2 = new Point2D.Double(c1.x - uy * height, c1.y + ux * height);
+                Point2D.Double c3 = new Point2D.Double(c0.x - uy * height, c0.y + ux * height);
+                best = new Rectangle(new Point2D.Double[] { c0, c1, c2, c3 }, area);
+            }
+        }
+        return best;
+    }
+
+    // Moves pointer k forward while the next vertex is further along sign * (dx, dy)
+    private int advance(int k, long dx, long dy, int sign) {
+        for (int steps = 0; steps < h; steps++) {
+            int kn = (k + 1) % h;
+            long along = dot((long) xs[kn] - xs[k], (long) ys[kn] - ys[k], dx, dy);
+            if (sign * along <= 0) {
+                break;
+            }
+            k = kn;
+        }
+        return k;
+    }
+
+    private boolean onSegment(int a, int b, int x, int y) {
+        return x >= Math.min(xs[a], xs[b]) && x <= Math.max(xs[a], xs[b])
+                && y >= Math.min(ys[a], ys[b]) && y <= Math.max(ys[a], ys[b]);
+    }
+
+    // Whether vertex j + 1 lies further than j from the line through edge (i, next). The
+    // difference of the two areas is the cross product of the edge with the step from j to
+    // j + 1, so it is compared exactly even for full-range coordinates.
+    private boolean furtherNext(int i, int next, int j) {
+        int jn = (j + 1) % h;
+        return HullEngine.cross(0, 0, (long) xs[next] - xs[i], (long) ys[next] - ys[i],
+                (long) xs[jn] - xs[j], (long) ys[jn] - ys[j]) > 0;
+    }
+
+    // Twice the triangle's area, in double: exact up to differences of 2^26 and only used
+    // for the reported width
+    private double area2(int a, int b, int c) {
+        return ((double) xs[b] - xs[a]) * ((double) ys[c] - ys[a])
+                - ((double) ys[b] - ys[a]) * ((double) xs[c] - xs[a]);
+    }
+
+    // In double, since the squares of two 33-bit differences can overflow a long
+    private double distanceSquared(int a, int b) {
+        double dx = (double) xs[a] - xs[b];
+        double dy = (double) ys[a] - ys[b];
+        return dx * dx + dy * dy;
+    }
+
+    // Sign of the dot product (ax, ay) . (bx, by) of two coordinate differences, taken as the
+    // exact cross product of (ax, -ay) and (by, bx)
+    private static long dot(long ax, long ay, long bx, long by) {
+        return HullEngine.cross(0, 0, ax, -ay, by, bx);
+    }
+}
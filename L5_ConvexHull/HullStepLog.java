@@ -0,0 +1,120 @@
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact record of a Graham scan for step-by-step display.
+// Instead of a stack snapshot per step, the scan's push/pop operations are stored in an
+// int array (push i -> i + 1, pop i -> -(i + 1), indices into the sorted points) and each
+// step is just the op count reached at that point. A replay cursor applies or undoes ops
+// to move between steps, so stepping costs only the ops in between.
+final class HullStepLog {
+    private List<Point> sortedPoints = new ArrayList<>();
+
+    private int[] ops = new int[16];
+    private int opCount = 0;
+
+    private int[] stepOpEnd = new int[16];
+    private int[] stepVertex = new int[16];
+    private int stepCount = 0;
+
+    // Replay cursor: the stack as it stands after cursorOps operations
+    private int[] stack = new int[16];
+    private int stackSize = 0;
+    private int cursorOps = 0;
+
+    void reset(List<Point> sortedPoints) {
+        this.sortedPoints = sortedPoints;
+        opCount = 0;
+        stepCount = 0;
+        stackSize = 0;
+        cursorOps = 0;
+    }
+
+    void clear() {
+        reset(new ArrayList<>());
+    }
+
+    void push(int index) {
+        addOp(index + 1);
+    }
+
+    void pop(int index) {
+        addOp(-(index + 1));
+    }
+
+    // Marks the current op position as a step, highlighting sorted point vertex (or -1 for none)
+    void markStep(int vertex) {
+        if (stepCount == stepOpEnd.length) {
+            stepOpEnd = grow(stepOpEnd);
+            stepVertex = grow(stepVertex);
+        }
+        stepOpEnd[stepCount] = opCount;
+        stepVertex[stepCount] = vertex;
+        stepCount++;
+    }
+
+    int stepCount() {
+        return stepCount;
+    }
+
+    // Moves the replay cursor to the given step
+    void seek(int step) {
+        int target = stepOpEnd[step];
+        while (cursorOps < target) {
+            apply(ops[cursorOps++]);
+        }
+        while (cursorOps > target) {
+            undo(ops[--cursorOps]);
+        }
+    }
+
+    // Hull at the step last passed to seek()
+    int hullSize() {
+        return stackSize;
+    }
+
+    Point hullPoint(int i) {
+        return sortedPoints.get(stack[i]);
+    }
+
+    // Point under consideration at a step, or null
+    Point currentVertex(int step) {
+        int vertex = stepVertex[step];
+        return (vertex >= 0) ? sortedPoints.get(vertex) : null;
+    }
+
+    private void addOp(int op) {
+        if (opCount == ops.length) {
+            ops = grow(ops);
+        }
+        ops[opCount++] = op;
+    }
+
+    private void apply(int op) {
+        if (op > 0) {
+            if (stackSize == stack.length) {
+                stack = grow(stack);
+            }
+            stack[stackSize++] = op - 1;
+        } else {
+            stackSize--;
+        }
+    }
+
+    private void undo(int op) {
+        if (op > 0) {
+            stackSize--;
+        } else {
+            if (stackSize == stack.length) {
+                stack = grow(stack);
+            }
+            stack[stackSize++] = -op - 1;
+        }
+    }
+
+    private static int[] grow(int[] array) {
+        int[] bigger = new int[array.length * 2];
+        System.arraycopy(array, 0, bigger, 0, array.length);
+        return bigger;
+    }
+}
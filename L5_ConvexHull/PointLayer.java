@@ -0,0 +1,97 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.List;
+
+// Cached raster of the point set, so repaints only blit an image and draw the hull on top.
+// Small sets are drawn as antialiased dots; above DENSITY_THRESHOLD every point becomes a
+// single pixel shaded by how many points land on it. Points appended since the last render
+// are drawn incrementally; a view change or removal of points forces a full render.
+final class PointLayer {
+    static final int DENSITY_THRESHOLD = 20_000;
+
+    private BufferedImage image;
+    private int[] pixels;
+    private int[] counts; // points per pixel, density mode only
+    private boolean densityMode;
+    private boolean valid = false;
+    private int renderedCount = 0;
+
+    private double viewX;
+    private double viewY;
+    private double scale;
+
+    // Call after the view (pan/zoom) changes
+    void invalidate() {
+        valid = false;
+    }
+
+    BufferedImage render(List<Point> points, int width, int height, double viewX, double viewY, double scale) {
+        width = Math.max(width, 1);
+        height = Math.max(height, 1);
+        boolean wantDensity = points.size() > DENSITY_THRESHOLD;
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            counts = null;
+            valid = false;
+        }
+        if (!valid || renderedCount > points.size() || wantDensity != densityMode) {
+            this.viewX = viewX;
+            this.viewY = viewY;
+            this.scale = scale;
+            densityMode = wantDensity;
+            Arrays.fill(pixels, 0xFFFFFF);
+            if (densityMode) {
+                if (counts == null) {
+                    counts = new int[pixels.length];
+                } else {
+                    Arrays.fill(counts, 0);
+                }
+            }
+            renderedCount = 0;
+            valid = true;
+        }
+        if (renderedCount < points.size()) {
+            if (densityMode) {
+                drawDensity(points, renderedCount, points.size());
+            } else {
+                drawDots(points, renderedCount, points.size());
+            }
+            renderedCount = points.size();
+        }
+        return image;
+    }
+
+    private void drawDots(List<Point> points, int from, int to) {
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(Color.BLACK);
+        for (int i = from; i < to; i++) {
+            Point p = points.get(i);
+            int sx = (int) Math.round((p.x - viewX) * scale);
+            int sy = (int) Math.round((p.y - viewY) * scale);
+            g2d.fillOval(sx - 4, sy - 4, 8, 8);
+        }
+        g2d.dispose();
+    }
+
+    private void drawDensity(List<Point> points, int from, int to) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        for (int i = from; i < to; i++) {
+            Point p = points.get(i);
+            int sx = (int) ((p.x - viewX) * scale);
+            int sy = (int) ((p.y - viewY) * scale);
+            if (sx < 0 || sy < 0 || sx >= width || sy >= height) {
+                continue;
+            }
+            int index = sy * width + sx;
+            int count = ++counts[index];
+            // One point is mid grey, darkening logarithmically towards black
+            int shade = Math.max(0, 160 - 24 * (31 - Integer.numberOfLeadingZeros(count)));
+            pixels[index] = (shade << 16) | (shade << 8) | shade;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+import java.awt.Point;
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reads points from disk in fixed-size blocks.
+// Supported formats:
+//   .csv / .txt  - one "x,y" pair per line (blank lines, '#' comments and a header are skipped)
+//   anything else - packed binary, little-endian int32 x followed by int32 y per point
+// 3D points (loadXyz) use "x,y,z" lines or packed little-endian float64 triples.
+final class PointLoader {
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    // Largest region mapped at once; a multiple of 8 so no point straddles two regions
+    private static final long MAP_REGION_BYTES = 1L << 30;
+
+    interface BlockConsumer {
+        void accept(int[] xs, int[] ys, int count);
+    }
+
+    private PointLoader() {
+    }
+
+    static boolean isCsv(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".txt");
+    }
+
+    // Streams every point in the file to the consumer; returns the number of points read
+    static long stream(Path file, int blockSize, BlockConsumer consumer) throws IOException {
+        return isCsv(file) ? streamCsv(file, blockSize, consumer) : streamBinary(file, blockSize, consumer);
+    }
+
+    // False for NaN too
+    private static boolean inIntRange(double value) {
+        return value >= Integer.MIN_VALUE - 0.5 && value < Integer.MAX_VALUE + 0.5;
+    }
+
+    static long streamCsv(Path file, int blockSize, BlockConsumer consumer) throws IOException {
+        int[] xs = new int[blockSize];
+        int[] ys = new int[blockSize];
+        int count = 0;
+        long total = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    throw new IOException("Line " + lineNumber + ": expected x,y but got \"" + line + "\"");
+                }
+                double x;
+                double y;
+                try {
+                    x = Double.parseDouble(line.substring(0, comma).trim());
+                    y = Double.parseDouble(line.substring(comma + 1).trim());
+                } catch (NumberFormatException e) {
+                    if (total == 0 && count == 0) {
+                        continue; // header row before the first point
+                    }
+                    throw new IOException("Line " + lineNumber + ": invalid number in \"" + line + "\"");
+                }
+                // Math.round would clamp these to the int range without a word
+                if (!(inIntRange(x) && inIntRange(y))) {
+                    throw new IOException("Line " + lineNumber + ": coordinate outside the int range in \"" + line + "\"");
+                }
+                xs[count] = (int) Math.round(x);
+                ys[count] = (int) Math.round(y);
+                if (++count == blockSize) {
+                    consumer.accept(xs, ys, count);
+                    total += count;
+                    count = 0;
+                }
+            }
+        }
+        if (count > 0) {
+            consumer.accept(xs, ys, count);
+            total += count;
+        }
+        return total;
+    }
+
+    // Memory-maps the file region by region so files larger than the heap never get copied in whole
+    static long streamBinary(Path file, int blockSize, BlockConsumer consumer) throws IOException {
+        int[] xs = new int[blockSize];
+        int[] ys = new int[blockSize];
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % 8 != 0) {
+                throw new IOException("Binary point file size " + size + " is not a multiple of 8 bytes");
+            }
+            for (long offset = 0; offset < size; offset += MAP_REGION_BYTES) {
+                long length = Math.min(MAP_REGION_BYTES, size - offset);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                IntBuffer ints = region.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                while (ints.hasRemaining()) {
+                    int count = Math.min(blockSize, ints.remaining() / 2);
+                    for (int i = 0; i < count; i++) {
+                        xs[i] = ints.get();
+                        ys[i] = ints.get();
+                    }
+                    consumer.accept(xs, ys, count);
+                    total += count;
+                }
+            }
+        }
+        return total;
+    }
+
+    // Loads a whole file as Points for the interactive view
+    static List<Point> load(Path file) throws IOException {
+        List<Point> result = new ArrayList<>();
+        stream(file, DEFAULT_BLOCK_SIZE, (xs, ys, count) -> {
+            for (int i = 0; i < count; i++) {
+                result.add(new Point(xs[i], ys[i]));
+            }
+        });
+        return result;
+    }
+
+    // Loads 3D points packed as x0, y0, z0, x1, ... for QuickHull3D
+    static double[] loadXyz(Path file) throws IOException {
+        if (isCsv(file)) {
+            double[] xyz = new double[3 * 1024];
+            int count = 0;
+            long lineNumber = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split(",");
+                    if (fields.length < 3) {
+                        throw new IOException("Line " + lineNumber + ": expected x,y,z but got \"" + line + "\"");
+                    }
+                    if (count + 3 > xyz.length) {
+                        xyz = Arrays.copyOf(xyz, xyz.length * 2);
+                    }
+                    try {
+                        for (int k = 0; k < 3; k++) {
+                            xyz[count + k] = Double.parseDouble(fields[k].trim());
+                        }
+                    } catch (NumberFormatException e) {
+                        if (count == 0) {
+                            continue; // header row before the first point
+                        }
+                        throw new IOException("Line " + lineNumber + ": invalid number in \"" + line + "\"");
+                    }
+                    count += 3;
+                }
+            }
+            return Arrays.copyOf(xyz, count);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % 24 != 0) {
+                throw new IOException("Binary xyz file size " + size + " is not a multiple of 24 bytes");
+            }
+            if (size / 8 > Integer.MAX_VALUE - 8) {
+                throw new IOException("Binary xyz file is too large to load at once");
+            }
+            double[] xyz = new double[(int) (size / 8)];
+            int k = 0;
+            // Regions of 3 * 2^28 bytes keep every triple inside one mapping
+            long region = 3L << 28;
+            for (long offset = 0; offset < size; offset += region) {
+                long length = Math.min(region, size - offset);
+                DoubleBuffer doubles = channel.map(FileChannel.MapMode.READ_ONLY, offset, length)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                int count = doubles.remaining();
+                doubles.get(xyz, k, count);
+                k += count;
+            }
+            return xyz;
+        }
+    }
+
+    // Writes points in the packed binary format read by streamBinary
+    static void writeBinary(Path file, int[] xs, int[] ys, int n) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int i = 0; i < n; i++) {
+                out.writeInt(Integer.reverseBytes(xs[i]));
+                out.writeInt(Integer.reverseBytes(ys[i]));
+            }
+        }
+    }
+}
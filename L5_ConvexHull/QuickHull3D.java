@@ -0,0 +1,450 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// 3D convex hull (QuickHull) over packed coordinates: point i is
+// (xyz[3i], xyz[3i + 1], xyz[3i + 2]).
+// Every unassigned point sits in the conflict list of one face it is above; the face's
+// farthest conflict point is added next, the faces it sees are removed and the horizon
+// is fanned to the new point, and only the removed faces' points are redistributed.
+// Result: triangles as a flat int array of point indices, wound counter-clockwise when
+// seen from outside.
+//
+// Usage: java QuickHull3D <points.csv | points.xyz>
+//        java QuickHull3D --self-test
+public class QuickHull3D {
+    // Inputs at least this big are split across cores in parallelHull
+    private static final int PARALLEL_THRESHOLD = 200_000;
+
+    private final double[] xyz;
+    private final double epsilon;
+    private final List<Face> faces = new ArrayList<>();
+
+    private static class Face {
+        final int[] v = new int[3];
+        // neighbour[i] shares edge v[i] -> v[(i + 1) % 3]
+        final Face[] neighbour = new Face[3];
+        double nx, ny, nz, offset;
+        int[] conflicts = new int[4];
+        int conflictCount = 0;
+        boolean alive = true;
+        boolean visible = false;
+
+        void addConflict(int point) {
+            if (conflictCount == conflicts.length) {
+                conflicts = Arrays.copyOf(conflicts, conflictCount * 2);
+            }
+            conflicts[conflictCount++] = point;
+        }
+    }
+
+    private QuickHull3D(double[] xyz, int[] indices, int count) {
+        this.xyz = xyz;
+        double maxX = 0, maxY = 0, maxZ = 0;
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            maxX = Math.max(maxX, Math.abs(xyz[3 * i]));
+            maxY = Math.max(maxY, Math.abs(xyz[3 * i + 1]));
+            maxZ = Math.max(maxZ, Math.abs(xyz[3 * i + 2]));
+        }
+        epsilon = 3 * Math.ulp(1.0) * (maxX + maxY + maxZ);
+    }
+
+    // Triangles of the hull of the first n points
+    public static int[] hull(double[] xyz, int n) {
+        return hull(xyz, identity(n), n);
+    }
+
+    // Triangles of the hull of the points indices[0 .. count)
+    public static int[] hull(double[] xyz, int[] indices, int count) {
+        QuickHull3D quickHull = new QuickHull3D(xyz, indices, count);
+        quickHull.build(indices, count);
+        return quickHull.triangles();
+    }
+
+    // Splits large inputs into one chunk per core, hulls the chunks in parallel and then
+    // hulls the union of the chunk hull vertices
+    public static int[] parallelHull(double[] xyz, int n) {
+        int chunks = Runtime.getRuntime().availableProcessors();
+        if (n < PARALLEL_THRESHOLD || chunks < 2) {
+            return hull(xyz, n);
+        }
+        return parallelHull(xyz, n, chunks);
+    }
+
+    // A chunk can be flat even when the whole input isn't (points sorted by z, say); such a
+    // chunk has no 3D hull, so all of its points go on to the final merge
+    static int[] parallelHull(double[] xyz, int n, int chunks) {
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] chunkVertices = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            int from = c * chunkSize;
+            int to = Math.min(n, from + chunkSize);
+            int[] indices = new int[to - from];
+            for (int i = from; i < to; i++) {
+                indices[i - from] = i;
+            }
+            QuickHull3D quickHull = new QuickHull3D(xyz, indices, indices.length);
+            if (quickHull.simplex(indices, indices.length) == null) {
+                return indices;
+            }
+            quickHull.build(indices, indices.length);
+            return vertices(quickHull.triangles());
+        }).toArray(int[][]::new);
+
+        int total = 0;
+        for (int[] v : chunkVertices) {
+            total += v.length;
+        }
+        int[] merged = new int[total];
+        int k = 0;
+        for (int[] v : chunkVertices) {
+            System.arraycopy(v, 0, merged, k, v.length);
+            k += v.length;
+        }
+        return hull(xyz, merged, total);
+    }
+
+    // Distinct point indices used by a triangle list, in ascending order
+    public static int[] vertices(int[] triangles) {
+        int[] sorted = triangles.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    private static int[] identity(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private void build(int[] indices, int count) {
+        int[] simplex = initialSimplex(indices, count);
+        int a = simplex[0], b = simplex[1], c = simplex[2], d = simplex[3];
+
+        // Wind the base so that d is below it, then fan the other three faces
+        Face base = newFace(a, b, c);
+        if (distance(base, d) > 0) {
+            base.alive = false;
+            faces.remove(faces.size() - 1);
+            int t = b;
+            b = c;
+            c = t;
+            base = newFace(a, b, c);
+        }
+        Face f0 = newFace(a, d, b);
+        Face f1 = newFace(b, d, c);
+        Face f2 = newFace(c, d, a);
+        link(base, 0, f0, 2);
+        link(base, 1, f1, 2);
+        link(base, 2, f2, 2);
+        link(f0, 1, f1, 0);
+        link(f1, 1, f2, 0);
+        link(f2, 1, f0, 0);
+
+        for (int k = 0; k < count; k++) {
+            int p = indices[k];
+            if (p != a && p != b && p != c && p != d) {
+                assign(p, faces);
+            }
+        }
+
+        ArrayDeque<Face> pending = new ArrayDeque<>(faces);
+        while (!pending.isEmpty()) {
+            Face face = pending.poll();
+            if (!face.alive || face.conflictCount == 0) {
+                continue;
+            }
+            pending.addAll(addPoint(face));
+        }
+    }
+
+    // Picks four well-spread, non-coplanar points
+    private int[] initialSimplex(int[] indices, int count) {
+        if (count < 4) {
+            throw new IllegalArgumentException("Need at least 4 points for a 3D hull");
+        }
+        int[] simplex = simplex(indices, count);
+        if (simplex == null) {
+            throw new IllegalArgumentException(simplex(indices, count, false) == null
+                    ? "Points are collinear" : "Points are coplanar");
+        }
+        return simplex;
+    }
+
+    // The initial simplex, or null when the points span less than three dimensions
+    private int[] simplex(int[] indices, int count) {
+        return count < 4 ? null : simplex(indices, count, true);
+    }
+
+    // With full false, stops after the third point: null then means collinear or coincident
+    private int[] simplex(int[] indices, int count, boolean full) {
+        // The pair of axis extremes furthest apart
+        int a = indices[0], b = indices[0];
+        double bestSpan = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            int lo = indices[0], hi = indices[0];
+            for (int k = 1; k < count; k++) {
+                int i = indices[k];
+                if (xyz[3 * i + axis] < xyz[3 * lo + axis]) {
+                    lo = i;
+                }
+                if (xyz[3 * i + axis] > xyz[3 * hi + axis]) {
+                    hi = i;
+                }
+            }
+            double span = xyz[3 * hi + axis] - xyz[3 * lo + axis];
+            if (span > bestSpan) {
+                bestSpan = span;
+                a = lo;
+                b = hi;
+            }
+        }
+
+        // Furthest from line ab
+        int c = -1;
+        double best = epsilon;
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            double[] n = normal(a, b, i);
+            double area = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+            if (area > best) {
+                best = area;
+                c = i;
+            }
+        }
+        if (c < 0) {
+            return null;
+        }
+        if (!full) {
+            return new int[] { a, b, c };
+        }
+
+        // Furthest from plane abc
+        double[] n = normal(a, b, c);
+        double length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+        int d = -1;
+        best = epsilon;
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            double dist = Math.abs(n[0] * (xyz[3 * i] - xyz[3 * a]) + n[1] * (xyz[3 * i + 1] - xyz[3 * a + 1])
+                    + n[2] * (xyz[3 * i + 2] - xyz[3 * a + 2])) / length;
+            if (dist > best) {
+                best = dist;
+                d = i;
+            }
+        }
+        if (d < 0) {
+            return null;
+        }
+        return new int[] { a, b, c, d };
+    }
+
+    // Adds the farthest conflict point of face; returns the new faces
+    private List<Face> addPoint(Face face) {
+        int eye = face.conflicts[0];
+        double far = distance(face, eye);
+        for (int k = 1; k < face.conflictCount; k++) {
+            double dist = distance(face, face.conflicts[k]);
+            if (dist > far) {
+                far = dist;
+                eye = face.conflicts[k];
+            }
+        }
+
+        // Faces that see the eye, found by flood fill from the starting face
+        List<Face> visible = new ArrayList<>();
+        ArrayDeque<Face> stack = new ArrayDeque<>();
+        face.visible = true;
+        stack.push(face);
+        while (!stack.isEmpty()) {
+            Face f = stack.pop();
+            visible.add(f);
+            for (Face g : f.neighbour) {
+                if (!g.visible && distance(g, eye) > epsilon) {
+                    g.visible = true;
+                    stack.push(g);
+                }
+            }
+        }
+
+        // Fan every horizon edge (visible face on one side, hidden on the other) to the eye
+        List<Face> created = new ArrayList<>();
+        Map<Integer, Face> byStart = new HashMap<>();
+        for (Face f : visible) {
+            for (int e = 0; e < 3; e++) {
+                Face outside = f.neighbour[e];
+                if (outside.visible) {
+                    continue;
+                }
+                int u = f.v[e];
+                int w = f.v[(e + 1) % 3];
+                Face g = newFace(u, w, eye);
+                link(g, 0, outside, edgeIndex(outside, w, u));
+                byStart.put(u, g);
+                created.add(g);
+            }
+        }
+        for (Face g : created) {
+            // Edge (w, eye) meets the new face starting at w; edge (eye, u) the one ending at u
+            link(g, 1, byStart.get(g.v[1]), 2);
+        }
+
+        for (Face f : visible) {
+            f.alive = false;
+        }
+        for (Face f : visible) {
+            for (int k = 0; k < f.conflictCount; k++) {
+                int p = f.conflicts[k];
+                if (p != eye) {
+                    assign(p, created);
+                }
+            }
+            f.conflicts = null;
+        }
+        return created;
+    }
+
+    // Puts p in the conflict list of the candidate face it is furthest above, if any
+    private void assign(int p, List<Face> candidates) {
+        Face best = null;
+        double bestDistance = epsilon;
+        for (Face f : candidates) {
+            double dist = distance(f, p);
+            if (dist > bestDistance) {
+                bestDistance = dist;
+                best = f;
+            }
+        }
+        if (best != null) {
+            best.addConflict(p);
+        }
+    }
+
+    private Face newFace(int a, int b, int c) {
+        Face f = new Face();
+        f.v[0] = a;
+        f.v[1] = b;
+        f.v[2] = c;
+        double[] n = normal(a, b, c);
+        double length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+        f.nx = n[0] / length;
+        f.ny = n[1] / length;
+        f.nz = n[2] / length;
+        f.offset = f.nx * xyz[3 * a] + f.ny * xyz[3 * a + 1] + f.nz * xyz[3 * a + 2];
+        faces.add(f);
+        return f;
+    }
+
+    private static void link(Face f, int edge, Face g, int otherEdge) {
+        f.neighbour[edge] = g;
+        g.neighbour[otherEdge] = f;
+    }
+
+    // Index of edge a -> b in face f
+    private static int edgeIndex(Face f, int a, int b) {
+        for (int e = 0; e < 3; e++) {
+            if (f.v[e] == a && f.v[(e + 1) % 3] == b) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Hull is not a closed manifold");
+    }
+
+    private double distance(Face f, int p) {
+        return f.nx * xyz[3 * p] + f.ny * xyz[3 * p + 1] + f.nz * xyz[3 * p + 2] - f.offset;
+    }
+
+    // (b - a) x (c - a)
+    private double[] normal(int a, int b, int c) {
+        double abx = xyz[3 * b] - xyz[3 * a], aby = xyz[3 * b + 1] - xyz[3 * a + 1], abz = xyz[3 * b + 2] - xyz[3 * a + 2];
+        double acx = xyz[3 * c] - xyz[3 * a], acy = xyz[3 * c + 1] - xyz[3 * a + 1], acz = xyz[3 * c + 2] - xyz[3 * a + 2];
+        return new double[] { aby * acz - abz * acy, abz * acx - abx * acz, abx * acy - aby * acx };
+    }
+
+    private int[] triangles() {
+        int alive = 0;
+        for (Face f : faces) {
+            if (f.alive) {
+                alive++;
+            }
+        }
+        int[] result = new int[3 * alive];
+        int k = 0;
+        for (Face f : faces) {
+            if (f.alive) {
+                result[k++] = f.v[0];
+                result[k++] = f.v[1];
+                result[k++] = f.v[2];
+            }
+        }
+        return result;
+    }
+
+    // Checks parallelHull against hull on inputs whose chunks are flat, collinear or a
+    // single repeated point although the whole input is fully 3D
+    private static boolean selfTest() {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        int n = 400_000;
+        boolean passed = true;
+        for (String shape : new String[] { "ball", "planar half", "collinear quarter", "coincident quarter" }) {
+            double[] xyz = new double[3 * n];
+            for (int i = 0; i < n; i++) {
+                xyz[3 * i] = random.nextDouble(-1, 1);
+                xyz[3 * i + 1] = random.nextDouble(-1, 1);
+                xyz[3 * i + 2] = random.nextDouble(-1, 1);
+                // The degenerate points come first, so with 4 chunks they fill whole chunks
+                if (shape.equals("planar half") && i < n / 2) {
+                    xyz[3 * i + 2] = 0;
+                } else if (shape.equals("collinear quarter") && i < n / 4) {
+                    xyz[3 * i + 1] = xyz[3 * i];
+                    xyz[3 * i + 2] = xyz[3 * i];
+                } else if (shape.equals("coincident quarter") && i < n / 4) {
+                    xyz[3 * i] = xyz[3 * i + 1] = xyz[3 * i + 2] = 0.5;
+                }
+            }
+            boolean same;
+            try {
+                same = Arrays.equals(vertices(hull(xyz, n)), vertices(parallelHull(xyz, n, 4)));
+            } catch (IllegalArgumentException e) {
+                same = false;
+            }
+            System.out.printf("%-20s %s%n", shape, same ? "ok" : "FAILED");
+            passed &= same;
+        }
+        return passed;
+    }
+
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java QuickHull3D <points.csv | points.xyz>");
+            System.err.println("       java QuickHull3D --self-test");
+            System.exit(1);
+        }
+        if (args[0].equals("--self-test")) {
+            System.exit(selfTest() ? 0 : 1);
+        }
+        double[] xyz = PointLoader.loadXyz(java.nio.file.Paths.get(args[0]));
+        int n = xyz.length / 3;
+        long start = System.nanoTime();
+        int[] triangles = parallelHull(xyz, n);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Points:         " + n);
+        System.out.println("Hull faces:     " + triangles.length / 3);
+        System.out.println("Hull vertices:  " + vertices(triangles).length);
+        System.out.printf("Elapsed:        %.3f s%n", seconds);
+        System.out.printf("Throughput:     %.0f points/s%n", n / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.file.*;
+
+// Convex hull of a point file that may be far larger than the heap.
+// Points arrive in blocks; only the current hull plus one block is ever held in memory.
+//
+// Usage: java StreamingHull <points.csv | points.bin> [blockSize]
+public class StreamingHull implements PointLoader.BlockConsumer {
+    private int[] xs;
+    private int[] ys;
+    private int hullSize = 0;
+
+    public StreamingHull(int blockSize) {
+        xs = new int[blockSize];
+        ys = new int[blockSize];
+    }
+
+    // Merges one block into the running hull
+    @Override
+    public void accept(int[] blockXs, int[] blockYs, int count) {
+        int n = hullSize + count;
+        if (n > xs.length) {
+            // The hull itself grew (e.g. points on a circle); make room for it plus the block
+            int capacity = Math.max(n, xs.length * 2);
+            int[] newXs = new int[capacity];
+            int[] newYs = new int[capacity];
+            System.arraycopy(xs, 0, newXs, 0, hullSize);
+            System.arraycopy(ys, 0, newYs, 0, hullSize);
+            xs = newXs;
+            ys = newYs;
+        }
+        System.arraycopy(blockXs, 0, xs, hullSize, count);
+        System.arraycopy(blockYs, 0, ys, hullSize, count);
+
+        int[] hull = HullEngine.hull(xs, ys, n);
+
+        // Compact hull vertices to the front of the buffers, keeping their order
+        int[] hullXs = new int[hull.length];
+        int[] hullYs = new int[hull.length];
+        for (int i = 0; i < hull.length; i++) {
+            hullXs[i] = xs[hull[i]];
+            hullYs[i] = ys[hull[i]];
+        }
+        System.arraycopy(hullXs, 0, xs, 0, hull.length);
+        System.arraycopy(hullYs, 0, ys, 0, hull.length);
+        hullSize = hull.length;
+    }
+
+    public int getHullSize() {
+        return hullSize;
+    }
+
+    public int getX(int i) {
+        return xs[i];
+    }
+
+    public int getY(int i) {
+        return ys[i];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java StreamingHull <points.csv | points.bin> [blockSize]");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        int blockSize = (args.length > 1) ? Integer.parseInt(args[1]) : PointLoader.DEFAULT_BLOCK_SIZE;
+
+        StreamingHull streamingHull = new StreamingHull(blockSize);
+        long start = System.nanoTime();
+        long total = PointLoader.stream(file, blockSize, streamingHull);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Points read:    " + total);
+        System.out.println("Hull vertices:  " + streamingHull.getHullSize());
+        System.out.printf("Elapsed:        %.3f s%n", seconds);
+        System.out.printf("Throughput:     %.0f points/s%n", total / Math.max(seconds, 1e-9));
+        for (int i = 0; i < streamingHull.getHullSize(); i++) {
+            System.out.println(streamingHull.getX(i) + "," + streamingHull.getY(i));
+        }
+    }
+}
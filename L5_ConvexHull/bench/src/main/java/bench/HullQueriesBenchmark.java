@@ -0,0 +1,52 @@
+package bench;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Batch point-in-hull queries against the hull of 100k points from each distribution
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g", "-Djava.awt.headless=true" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HullQueriesBenchmark {
+    private static final int HULL_INPUT = 100_000;
+
+    @Param({ "UNIFORM_SQUARE", "UNIFORM_DISK", "ON_CIRCLE", "CLUSTERED" })
+    public PointDistribution distribution;
+
+    @Param({ "10000", "1000000" })
+    public int queries;
+
+    private Object hullQueries;
+    private int[] qx;
+    private int[] qy;
+    private boolean[] inside;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] xs = new int[HULL_INPUT];
+        int[] ys = new int[HULL_INPUT];
+        distribution.generate(xs, ys, HULL_INPUT, 42);
+        List<Point> points = new ArrayList<>(HULL_INPUT);
+        for (int i = 0; i < HULL_INPUT; i++) {
+            points.add(new Point(xs[i], ys[i]));
+        }
+        hullQueries = LabHull.newHullQueries(LabHull.grahamScan(points));
+
+        qx = new int[queries];
+        qy = new int[queries];
+        PointDistribution.UNIFORM_SQUARE.generate(qx, qy, queries, 43);
+        inside = new boolean[queries];
+    }
+
+    @Benchmark
+    public boolean[] containsAll() {
+        LabHull.containsAll(hullQueries, qx, qy, queries, inside);
+        return inside;
+    }
+}
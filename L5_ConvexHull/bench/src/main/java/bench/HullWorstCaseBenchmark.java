@@ -0,0 +1,62 @@
+package bench;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Output-size worst case: every input point is a hull vertex (PointDistribution.CONVEX_POSITION).
+// Its coordinates are far outside PointDistribution.EXTENT, so it is kept apart from
+// HullBenchmark.
+//   grahamScan    - GrahamScanConvexHull.grahamScan over java.awt.Point, no step log
+//   monotoneChain - HullEngine.hull over packed int arrays
+//   dynamicInsert - DynamicConvexHull fed one point at a time
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g", "-Djava.awt.headless=true" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HullWorstCaseBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int n;
+
+    private int[] xs;
+    private int[] ys;
+    private List<Point> points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        xs = new int[n];
+        ys = new int[n];
+        PointDistribution.CONVEX_POSITION.generate(xs, ys, n, 42);
+        int h = LabHull.packedHull(xs, ys, n).length;
+        if (h != n) {
+            throw new IllegalStateException("Expected all " + n + " points on the hull, got " + h);
+        }
+        points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            points.add(new Point(xs[i], ys[i]));
+        }
+    }
+
+    @Benchmark
+    public List<Point> grahamScan() {
+        return LabHull.grahamScan(points);
+    }
+
+    @Benchmark
+    public int[] monotoneChain() {
+        return LabHull.packedHull(xs, ys, n);
+    }
+
+    @Benchmark
+    public Object dynamicInsert() {
+        Object hull = LabHull.newDynamicHull();
+        for (int i = 0; i < n; i++) {
+            LabHull.dynamicInsert(hull, xs[i], ys[i]);
+        }
+        return hull;
+    }
+}
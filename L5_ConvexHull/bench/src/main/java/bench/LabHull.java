@@ -0,0 +1,120 @@
+package bench;
+
+import java.awt.Point;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+// The lab classes live in the default package, which JMH benchmarks (and any named
+// package) cannot reference directly. These handles reach them reflectively once;
+// held in static finals, the JIT treats them as constants and inlines the calls.
+final class LabHull {
+    private static final MethodHandle GRAHAM_SCAN;
+    private static final MethodHandle ORIENTATION;
+    private static final MethodHandle PACKED_HULL;
+    private static final MethodHandle NEW_DYNAMIC_HULL;
+    private static final MethodHandle DYNAMIC_INSERT;
+    private static final MethodHandle NEW_HULL_QUERIES;
+    private static final MethodHandle CONTAINS_ALL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> graham = Class.forName("GrahamScanConvexHull");
+            Class<?> stepLog = Class.forName("HullStepLog");
+            Class<?> engine = Class.forName("HullEngine");
+            Class<?> dynamic = Class.forName("DynamicConvexHull");
+
+            Method grahamScan = graham.getDeclaredMethod("grahamScan", List.class, stepLog);
+            grahamScan.setAccessible(true);
+            GRAHAM_SCAN = MethodHandles.insertArguments(lookup.unreflect(grahamScan), 1, (Object) null)
+                    .asType(MethodType.methodType(List.class, List.class));
+
+            Method orientation = graham.getDeclaredMethod("orientation", Point.class, Point.class, Point.class);
+            orientation.setAccessible(true);
+            ORIENTATION = lookup.unreflect(orientation);
+
+            Method hull = engine.getDeclaredMethod("hull", int[].class, int[].class, int.class);
+            hull.setAccessible(true);
+            PACKED_HULL = lookup.unreflect(hull);
+
+            Constructor<?> constructor = dynamic.getDeclaredConstructor();
+            NEW_DYNAMIC_HULL = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            DYNAMIC_INSERT = lookup.unreflect(dynamic.getDeclaredMethod("insert", int.class, int.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class, int.class, int.class));
+
+            Class<?> queries = Class.forName("HullQueries");
+            NEW_HULL_QUERIES = lookup.unreflectConstructor(queries.getDeclaredConstructor(List.class))
+                    .asType(MethodType.methodType(Object.class, List.class));
+            CONTAINS_ALL = lookup.unreflect(queries.getDeclaredMethod("containsAll",
+                    int[].class, int[].class, int.class, boolean[].class))
+                    .asType(MethodType.methodType(void.class, Object.class, int[].class, int[].class, int.class,
+                            boolean[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private LabHull() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Point> grahamScan(List<Point> points) {
+        try {
+            return (List<Point>) GRAHAM_SCAN.invokeExact(points);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static int orientation(Point p, Point q, Point r) {
+        try {
+            return (int) ORIENTATION.invokeExact(p, q, r);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static int[] packedHull(int[] xs, int[] ys, int n) {
+        try {
+            return (int[]) PACKED_HULL.invokeExact(xs, ys, n);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static Object newDynamicHull() {
+        try {
+            return (Object) NEW_DYNAMIC_HULL.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static boolean dynamicInsert(Object hull, int x, int y) {
+        try {
+            return (boolean) DYNAMIC_INSERT.invokeExact(hull, x, y);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static Object newHullQueries(List<Point> hull) {
+        try {
+            return (Object) NEW_HULL_QUERIES.invokeExact(hull);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static void containsAll(Object queries, int[] qx, int[] qy, int n, boolean[] inside) {
+        try {
+            CONTAINS_ALL.invokeExact(queries, qx, qy, n, inside);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
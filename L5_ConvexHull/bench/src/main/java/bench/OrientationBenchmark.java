@@ -0,0 +1,43 @@
+package bench;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Cost of the orientation() predicate per call on random triples from each distribution
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrientationBenchmark {
+    private static final int TRIPLES = 1024;
+
+    @Param({ "UNIFORM_SQUARE", "UNIFORM_DISK", "ON_CIRCLE", "CLUSTERED" })
+    public PointDistribution distribution;
+
+    private Point[] points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = 3 * TRIPLES;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        distribution.generate(xs, ys, n, 7);
+        points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = new Point(xs[i], ys[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRIPLES)
+    public void orientation(Blackhole blackhole) {
+        Point[] p = points;
+        for (int i = 0; i < p.length; i += 3) {
+            blackhole.consume(LabHull.orientation(p[i], p[i + 1], p[i + 2]));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Benchmark inputs. Coordinates stay within [0, 30000), where the lab's orientation() once
+// had to stay because it computed in int arithmetic; kept so results compare with earlier
+// runs. CONVEX_POSITION is the exception.
+public enum PointDistribution {
+    // Uniform in a square: hull size grows like log n
+    UNIFORM_SQUARE,
+    // Uniform in a disk: hull size grows like n^(1/3)
+    UNIFORM_DISK,
+    // Every point on a circle, but rounding to the small grid leaves only the extreme lattice
+    // points: h is about 620 at 1k points, 1.7k at 100k and 2k from 1M on
+    ON_CIRCLE,
+    // Gaussian blobs around a few centres
+    CLUSTERED,
+    // Vertices of a strictly convex polygon, shuffled: h = n exactly, the worst case for
+    // output size. A lattice polygon with n vertices needs a span of order n^(3/2), about
+    // 1.5e8 at 1M points, so it has its own benchmark (HullWorstCaseBenchmark).
+    CONVEX_POSITION;
+
+    static final int EXTENT = 30_000;
+
+    void generate(int[] xs, int[] ys, int n, long seed) {
+        Random random = new Random(seed);
+        double centre = EXTENT / 2.0;
+        double radius = EXTENT / 2.0 - 1;
+        switch (this) {
+            case UNIFORM_SQUARE:
+                for (int i = 0; i < n; i++) {
+                    xs[i] = random.nextInt(EXTENT);
+                    ys[i] = random.nextInt(EXTENT);
+                }
+                break;
+            case UNIFORM_DISK:
+                for (int i = 0; i < n; i++) {
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    double r = radius * Math.sqrt(random.nextDouble());
+                    xs[i] = (int) (centre + r * Math.cos(angle));
+                    ys[i] = (int) (centre + r * Math.sin(angle));
+                }
+                break;
+            case ON_CIRCLE:
+                for (int i = 0; i < n; i++) {
+                    double angle = random.nextDouble() * 2 * Math.PI;
+                    xs[i] = (int) Math.round(centre + radius * Math.cos(angle));
+                    ys[i] = (int) Math.round(centre + radius * Math.sin(angle));
+                }
+                break;
+            case CONVEX_POSITION:
+                convexPolygon(xs, ys, n, random);
+                break;
+            case CLUSTERED:
+                int clusters = 16;
+                double[] cx = new double[clusters];
+                double[] cy = new double[clusters];
+                for (int c = 0; c < clusters; c++) {
+                    cx[c] = EXTENT * (0.1 + 0.8 * random.nextDouble());
+                    cy[c] = EXTENT * (0.1 + 0.8 * random.nextDouble());
+                }
+                double spread = EXTENT / 40.0;
+                for (int i = 0; i < n; i++) {
+                    int c = random.nextInt(clusters);
+                    xs[i] = clamp(cx[c] + random.nextGaussian() * spread);
+                    ys[i] = clamp(cy[c] + random.nextGaussian() * spread);
+                }
+                break;
+        }
+    }
+
+    // Walks the n shortest primitive lattice vectors (n / 2 directions and their opposites)
+    // in angle order. No two edges are parallel and the vectors sum to zero, so the walk
+    // closes into a strictly convex polygon, as small as a lattice one with n vertices gets.
+    private static void convexPolygon(int[] xs, int[] ys, int n, Random random) {
+        if (n % 2 != 0) {
+            throw new IllegalArgumentException("CONVEX_POSITION needs an even n");
+        }
+        int half = n / 2;
+        // About 0.95 r^2 primitive vectors of length <= r lie in the upper half-plane
+        int r = (int) Math.ceil(Math.sqrt(half / 0.9)) + 2;
+        long[] candidates = new long[(2 * r + 1) * (r + 1)];
+        int count = 0;
+        for (int b = 0; b <= r; b++) {
+            for (int a = -r; a <= r; a++) {
+                if ((b > 0 || a > 0) && gcd(Math.abs(a), b) == 1) {
+                    // Squared length in the high bits, so sorting picks the shortest
+                    candidates[count++] = ((long) (a * a + b * b) << 32) | ((a + r) << 16) | b;
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        if (count < half) {
+            throw new IllegalStateException("Too few lattice directions for " + n + " points");
+        }
+        int[] ea = new int[n];
+        int[] eb = new int[n];
+        double[] angle = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < half; i++) {
+            int a = (int) ((candidates[i] >>> 16) & 0xffff) - r;
+            int b = (int) (candidates[i] & 0xffff);
+            ea[i] = a;
+            eb[i] = b;
+            ea[i + half] = -a;
+            eb[i + half] = -b;
+        }
+        for (int i = 0; i < n; i++) {
+            angle[i] = Math.atan2(eb[i], ea[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (p, q) -> Double.compare(angle[p], angle[q]));
+
+        long x = 0;
+        long y = 0;
+        long minX = 0;
+        long minY = 0;
+        long[] px = new long[n];
+        long[] py = new long[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = x;
+            py[i] = y;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            x += ea[order[i]];
+            y += eb[order[i]];
+        }
+        // Shuffled, so no engine gets its input presorted
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            xs[i] = xs[j];
+            ys[i] = ys[j];
+            xs[j] = (int) (px[i] - minX);
+            ys[j] = (int) (py[i] - minY);
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static int clamp(double value) {
+        return (int) Math.max(0, Math.min(EXTENT - 1, value));
+    }
+}
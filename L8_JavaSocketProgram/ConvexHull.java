@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Convex hull of a HullRequest's packed points: Andrew's monotone chain over an LSD radix
+// sort, as in L5_ConvexHull's HullEngine, on interleaved x, y pairs. Every range of points
+// first drops those strictly inside the quadrilateral of its extreme points (Akl-Toussaint),
+// which for typical inputs leaves a small fraction to sort. Inputs of PARALLEL_THRESHOLD
+// points or more are cut into chunks hulled on the worker pool; the hull of the chunks'
+// hull vertices is the hull of all the points.
+class ConvexHull {
+    private static final int PARALLEL_THRESHOLD = 1 << 19;
+    private static final int CHUNK_POINTS = 1 << 18;
+    // HullRequest's coordinate bound, which keeps cross() inside a long
+    private static final int MAX_COORDINATE = 1 << 30;
+    private static final String OUT_OF_RANGE = "Error: Coordinates must lie within +/-2^30";
+
+    static HullResult compute(HullRequest request, ExecutorService workers) throws InterruptedException {
+        int[] xy = request.getXy();
+        if (xy == null || xy.length == 0) {
+            return new HullResult(null, "Error: Empty data set");
+        }
+        if (xy.length % 2 != 0) {
+            return new HullResult(null, "Error: Odd number of coordinates");
+        }
+        int n = xy.length / 2;
+        if (n < PARALLEL_THRESHOLD) {
+            int[] vertices = hull(xy, 0, n);
+            return vertices == null ? new HullResult(null, OUT_OF_RANGE) : new HullResult(vertices, "Success");
+        }
+
+        List<Callable<int[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < n; from += CHUNK_POINTS) {
+            int start = from;
+            int end = Math.min(from + CHUNK_POINTS, n);
+            chunks.add(() -> hull(xy, start, end));
+        }
+        int[] candidates = new int[0];
+        int count = 0;
+        try {
+            for (Future<int[]> done : workers.invokeAll(chunks)) {
+                int[] vertices = done.get();
+                if (vertices == null) {
+                    return new HullResult(null, OUT_OF_RANGE);
+                }
+                if (count + vertices.length > candidates.length) {
+                    candidates = Arrays.copyOf(candidates, Math.max(2 * candidates.length, count + vertices.length));
+                }
+                System.arraycopy(vertices, 0, candidates, count, vertices.length);
+                count += vertices.length;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return new HullResult(hull(xy, candidates, count), "Success");
+    }
+
+    // Hull of points [from, to), or null if a coordinate is outside +/-MAX_COORDINATE.
+    // The bound is checked in the scan for extreme points, which reads every coordinate anyway.
+    static int[] hull(int[] xy, int from, int to) {
+        int[] points = new int[to - from];
+        int n = 0;
+        if (to - from < 8) {
+            for (int i = from; i < to; i++) {
+                if (outOfRange(xy[2 * i]) || outOfRange(xy[2 * i + 1])) {
+                    return null;
+                }
+                points[n++] = i;
+            }
+            return hull(xy, points, n);
+        }
+        if (outOfRange(xy[2 * from]) || outOfRange(xy[2 * from + 1])) {
+            return null;
+        }
+
+        // Extreme points: leftmost, lowest, rightmost, highest
+        int left = from;
+        int bottom = from;
+        int right = from;
+        int top = from;
+        for (int i = from + 1; i < to; i++) {
+            int x = xy[2 * i];
+            int y = xy[2 * i + 1];
+            if (outOfRange(x) || outOfRange(y)) {
+                return null;
+            }
+            if (x < xy[2 * left]) {
+                left = i;
+            }
+            if (x > xy[2 * right]) {
+                right = i;
+            }
+            if (y < xy[2 * bottom + 1]) {
+                bottom = i;
+            }
+            if (y > xy[2 * top + 1]) {
+                top = i;
+            }
+        }
+        // Counter-clockwise, so inside means strictly left of all four edges. A degenerate
+        // edge (two equal extremes) has cross 0 and keeps everything.
+        for (int i = from; i < to; i++) {
+            if (cross(xy, left, bottom, i) > 0 && cross(xy, bottom, right, i) > 0
+                    && cross(xy, right, top, i) > 0 && cross(xy, top, left, i) > 0) {
+                continue;
+            }
+            points[n++] = i;
+        }
+        return hull(xy, points, n);
+    }
+
+    // Hull of the points listed in points[0, n), returned as indices starting at the
+    // leftmost, lowest point and turning counter-clockwise. Reorders points.
+    static int[] hull(int[] xy, int[] points, int n) {
+        if (n == 0) {
+            return new int[0];
+        }
+        sortByXThenY(points, n, xy);
+
+        // Lower chain left to right, then upper chain back
+        int[] hull = new int[2 * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int p = points[i];
+            while (k >= 2 && cross(xy, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+        for (int i = n - 2, lowerSize = k + 1; i >= 0; i--) {
+            int p = points[i];
+            while (k >= lowerSize && cross(xy, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+
+        // Last point repeats the first one (except for a single point)
+        int size = (k > 1) ? k - 1 : k;
+        if (size == 2 && xy[2 * hull[0]] == xy[2 * hull[1]] && xy[2 * hull[0] + 1] == xy[2 * hull[1] + 1]) {
+            size = 1;
+        }
+        return Arrays.copyOf(hull, size);
+    }
+
+    private static boolean outOfRange(int coordinate) {
+        return coordinate < -MAX_COORDINATE || coordinate > MAX_COORDINATE;
+    }
+
+    static long cross(int[] xy, int a, int b, int c) {
+        long ax = xy[2 * a];
+        long ay = xy[2 * a + 1];
+        return (xy[2 * b] - ax) * (xy[2 * c + 1] - ay) - (xy[2 * b + 1] - ay) * (xy[2 * c] - ax);
+    }
+
+    // Stable LSD radix sort of point indices: by y first, then by x, 8 bits per pass.
+    // Passes where every key has the same digit are skipped.
+    private static void sortByXThenY(int[] order, int n, int[] xy) {
+        int[] tmp = new int[n];
+        int[] counts = new int[257];
+        int[] src = order;
+        int[] dst = tmp;
+        for (int pass = 0; pass < 8; pass++) {
+            // Offset 1 selects y, 0 selects x
+            int offset = (pass < 4) ? 1 : 0;
+            if (radixPass(src, dst, n, xy, offset, (pass % 4) * 8, counts)) {
+                int[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+        }
+        if (src != order) {
+            System.arraycopy(src, 0, order, 0, n);
+        }
+    }
+
+    // Returns false (and moves nothing) when all keys share the digit
+    private static boolean radixPass(int[] src, int[] dst, int n, int[] xy, int offset, int shift, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < n; i++) {
+            counts[digit(xy[2 * src[i] + offset], shift) + 1]++;
+        }
+        if (counts[digit(xy[2 * src[0] + offset], shift) + 1] == n) {
+            return false;
+        }
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            int idx = src[i];
+            dst[counts[digit(xy[2 * idx + offset], shift)]++] = idx;
+        }
+        return true;
+    }
+
+    // Flip the sign bit so negative coordinates sort before positive ones
+    private static int digit(int value, int shift) {
+        return ((value ^ 0x80000000) >>> shift) & 0xff;
+    }
+}
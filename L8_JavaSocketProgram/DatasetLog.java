@@ -0,0 +1,193 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// On-disk storage of one stream, in its own directory. All files are little-endian.
+//   times.i64    long epoch milliseconds, one per value, in push order
+//   values.f64   the matching doubles
+//   moments.snap the stream's aggregates (TimeSeries.writeState) after the first `rows`
+//                values: int magic "TSMS", int version, long rows, state, long CRC32
+// Both columns are append-only. The snapshot is replaced atomically and only covers
+// rows already forced to disk, so recovery restores it and replays just the rows after it.
+final class DatasetLog implements Closeable {
+    static final int MAGIC = 0x534D5354; // "TSMS" read as a little-endian int
+    static final int VERSION = 1;
+    // Rows per mapping while replaying; a MappedByteBuffer is limited to 2 GB
+    private static final int REPLAY_CHUNK_ROWS = 1 << 24;
+
+    private final Path dir;
+    private final FileChannel times;
+    private final FileChannel values;
+    private ByteBuffer timeBuffer = ByteBuffer.allocateDirect(8 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer valueBuffer = ByteBuffer.allocateDirect(8 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    // Written by append() under the series' lock; read by the flusher
+    private volatile long rows;
+    private long forcedRows;
+    private long snapshotRows;
+
+    private DatasetLog(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        times = FileChannel.open(dir.resolve("times.i64"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        values = FileChannel.open(dir.resolve("values.f64"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Opens the stream's files, creating them if needed, and rebuilds series from them
+    static DatasetLog open(Path dir, TimeSeries series) throws IOException {
+        DatasetLog log = new DatasetLog(dir);
+        try {
+            log.recover(series);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    private void recover(TimeSeries series) throws IOException {
+        // A crash can leave a torn row at the end of either column; keep the rows both have
+        long stored = Math.min(times.size(), values.size()) / 8;
+        times.truncate(stored * 8);
+        values.truncate(stored * 8);
+        times.position(stored * 8);
+        values.position(stored * 8);
+
+        long from = readSnapshot(series, stored);
+        for (long row = from; row < stored; row += REPLAY_CHUNK_ROWS) {
+            int n = (int) Math.min(REPLAY_CHUNK_ROWS, stored - row);
+            MappedByteBuffer t = times.map(FileChannel.MapMode.READ_ONLY, row * 8, n * 8L);
+            MappedByteBuffer v = values.map(FileChannel.MapMode.READ_ONLY, row * 8, n * 8L);
+            t.order(ByteOrder.LITTLE_ENDIAN);
+            v.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < n; i++) {
+                series.apply(t.getLong(i * 8), v.getDouble(i * 8));
+            }
+        }
+        rows = stored;
+        forcedRows = stored;
+        snapshotRows = from;
+    }
+
+    // Restores series from moments.snap and returns the rows it covers, or returns 0 and
+    // leaves series empty if there is no usable snapshot
+    private long readSnapshot(TimeSeries series, long stored) throws IOException {
+        Path file = dir.resolve("moments.snap");
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 24 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            System.err.println("Ignoring unreadable snapshot " + file);
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 8);
+        long covered = buffer.getLong(8);
+        if (crc.getValue() != buffer.getLong(buffer.limit() - 8) || covered > stored) {
+            System.err.println("Ignoring snapshot " + file + " that does not match the stored values");
+            return 0;
+        }
+        buffer.position(16).limit(buffer.limit() - 8);
+        if (!series.readState(buffer)) {
+            System.err.println("Ignoring snapshot " + file + " with a different window layout");
+            series.clear();
+            return 0;
+        }
+        return covered;
+    }
+
+    // Writes n rows at the end of both columns. Called with the series' lock held.
+    void append(long[] timestamps, double[] data, int n) throws IOException {
+        if (timeBuffer.capacity() < n * 8) {
+            timeBuffer = ByteBuffer.allocateDirect(n * 8).order(ByteOrder.LITTLE_ENDIAN);
+            valueBuffer = ByteBuffer.allocateDirect(n * 8).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        timeBuffer.clear();
+        valueBuffer.clear();
+        timeBuffer.asLongBuffer().put(timestamps, 0, n);
+        valueBuffer.asDoubleBuffer().put(data, 0, n);
+        timeBuffer.limit(n * 8);
+        valueBuffer.limit(n * 8);
+        try {
+            while (timeBuffer.hasRemaining()) {
+                times.write(timeBuffer);
+            }
+            while (valueBuffer.hasRemaining()) {
+                values.write(valueBuffer);
+            }
+        } catch (IOException e) {
+            // A partial write would pair later timestamps with the wrong values; cut both
+            // columns back to the last whole row before giving up on this batch
+            try {
+                times.truncate(rows * 8).position(rows * 8);
+                values.truncate(rows * 8).position(rows * 8);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        rows += n;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    // fsyncs both columns if anything was appended since the last call; every row counted
+    // by rows() before the call is durable once it returns. Only called by the flusher.
+    void force() throws IOException {
+        long target = rows;
+        if (target == forcedRows) {
+            return;
+        }
+        times.force(false);
+        values.force(false);
+        forcedRows = target;
+    }
+
+    long snapshotRows() {
+        return snapshotRows;
+    }
+
+    // Replaces moments.snap with state, the series' aggregates after the first `covered`
+    // rows. The rows must have been forced first.
+    void writeSnapshot(ByteBuffer state, long covered) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(24 + state.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(covered).put(state);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+
+        Path temp = dir.resolve("moments.snap.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, dir.resolve("moments.snap"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        snapshotRows = covered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            times.close();
+        } finally {
+            values.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.*;
+import java.net.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Command-line client for multivariate statistics:
+//   java FrameClient <file.csv> [response]
+// The CSV holds one row per line and one column per field, with an optional header line of
+// column names. All columns go to the server in one FrameRequest; response (a column name
+// or index) is regressed on the others.
+public class FrameClient {
+    private static final int PORT = 5000;
+    private static final String SERVER_ADDRESS = "localhost"; // Change to server IP when running on different machines
+    // Matrices wider than this are summarised instead of printed
+    private static final int MAX_PRINTED_COLUMNS = 12;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java FrameClient <file.csv> [response column]");
+            System.exit(1);
+        }
+
+        List<String> lines = Files.readAllLines(Paths.get(args[0]));
+        lines.removeIf(line -> line.trim().isEmpty());
+        if (lines.isEmpty()) {
+            System.err.println("No data in " + args[0]);
+            System.exit(1);
+        }
+        String[] first = lines.get(0).split(",");
+        int k = first.length;
+        String[] names = new String[k];
+        boolean header = !isNumber(first[0].trim());
+        for (int c = 0; c < k; c++) {
+            names[c] = header ? first[c].trim() : "x" + c;
+        }
+
+        int rows = lines.size() - (header ? 1 : 0);
+        double[][] columns = new double[k][rows];
+        for (int r = 0; r < rows; r++) {
+            String[] fields = lines.get(r + (header ? 1 : 0)).split(",");
+            if (fields.length != k) {
+                System.err.println("Line " + (r + (header ? 2 : 1)) + " has " + fields.length + " fields, expected " + k);
+                System.exit(1);
+            }
+            for (int c = 0; c < k; c++) {
+                columns[c][r] = Double.parseDouble(fields[c].trim());
+            }
+        }
+
+        int response = -1;
+        if (args.length > 1) {
+            response = indexOf(names, args[1]);
+            if (response < 0) {
+                System.err.println("No column " + args[1]);
+                System.exit(1);
+            }
+        }
+
+        FrameResult result;
+        try (
+                Socket socket = new Socket(SERVER_ADDRESS, PORT);
+                ObjectOutputStream outputStream = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream inputStream = new ObjectInputStream(socket.getInputStream());) {
+            outputStream.writeObject(new FrameRequest(names, columns, response));
+            outputStream.flush();
+            result = (FrameResult) inputStream.readObject();
+        }
+        print(result);
+    }
+
+    private static boolean isNumber(String text) {
+        try {
+            Double.parseDouble(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static int indexOf(String[] names, String column) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(column)) {
+                return c;
+            }
+        }
+        try {
+            int index = Integer.parseInt(column);
+            return index >= 0 && index < names.length ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void print(FrameResult result) {
+        System.out.println("Status: " + result.getStatus());
+        if (result.getMeans() == null) {
+            return;
+        }
+        int k = result.getMeans().length;
+        String[] names = result.getNames();
+        if (names == null) {
+            names = new String[k];
+            for (int c = 0; c < k; c++) {
+                names[c] = "x" + c;
+            }
+        }
+        System.out.println("Rows: " + result.getRows());
+        System.out.printf("%n%-16s %14s %14s%n", "Column", "Mean", "Std Dev");
+        for (int c = 0; c < k; c++) {
+            System.out.printf("%-16s %14.6g %14.6g%n", names[c], result.getMeans()[c], result.getStandardDeviations()[c]);
+        }
+
+        double[][] correlation = result.getCorrelation();
+        if (k <= MAX_PRINTED_COLUMNS) {
+            System.out.printf("%nCorrelation%n%-16s", "");
+            for (int c = 0; c < k; c++) {
+                System.out.printf(" %9.9s", names[c]);
+            }
+            System.out.println();
+            for (int i = 0; i < k; i++) {
+                System.out.printf("%-16s", names[i]);
+                for (int j = 0; j < k; j++) {
+                    System.out.printf(" %9.4f", correlation[i][j]);
+                }
+                System.out.println();
+            }
+        } else {
+            // Too wide to print; show the most correlated pair instead
+            int bi = -1;
+            int bj = -1;
+            for (int i = 0; i < k; i++) {
+                for (int j = i + 1; j < k; j++) {
+                    if (bi < 0 || Math.abs(correlation[i][j]) > Math.abs(correlation[bi][bj])) {
+                        bi = i;
+                        bj = j;
+                    }
+                }
+            }
+            System.out.printf("%nStrongest correlation: %s ~ %s = %.4f%n", names[bi], names[bj], correlation[bi][bj]);
+        }
+
+        if (result.getCoefficients() != null) {
+            System.out.printf("%nRegression of %s%n", names[result.getResponse()]);
+            System.out.printf("%-16s %14.6g%n", "(intercept)", result.getIntercept());
+            for (int c = 0; c < k; c++) {
+                if (c != result.getResponse()) {
+                    System.out.printf("%-16s %14.6g%n", names[c], result.getCoefficients()[c]);
+                }
+            }
+            System.out.printf("R squared: %.6f%n", result.getRSquared());
+        }
+    }
+}
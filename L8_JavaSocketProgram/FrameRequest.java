@@ -0,0 +1,32 @@
+import java.io.Serializable;
+
+// k aligned columns sent in one request: columns[c][r] is the value of column c in row r.
+// The server replies with a FrameResult holding the means, covariance and correlation of
+// all columns and, if response is a column index, the least-squares fit of that column on
+// all the others.
+class FrameRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String[] names;
+    private double[][] columns;
+    private int response;
+
+    // names may be null; response is -1 for no regression
+    public FrameRequest(String[] names, double[][] columns, int response) {
+        this.names = names;
+        this.columns = columns;
+        this.response = response;
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public double[][] getColumns() {
+        return columns;
+    }
+
+    public int getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.Serializable;
+
+// Reply to a FrameRequest. Standard deviations and covariances are population values
+// (divided by the row count), like StatisticsCalculator's. coefficients[c] is the slope for
+// predictor column c and NaN for the response column; with no regression, coefficients is
+// null and intercept and rSquared are NaN.
+class FrameResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String[] names;
+    private long rows;
+    private double[] means;
+    private double[] standardDeviations;
+    private double[][] covariance;
+    private double[][] correlation;
+    private int response;
+    private double[] coefficients;
+    private double intercept;
+    private double rSquared;
+    private String status;
+
+    public FrameResult(String[] names, long rows, double[] means, double[] standardDeviations,
+            double[][] covariance, double[][] correlation, int response, double[] coefficients,
+            double intercept, double rSquared, String status) {
+        this.names = names;
+        this.rows = rows;
+        this.means = means;
+        this.standardDeviations = standardDeviations;
+        this.covariance = covariance;
+        this.correlation = correlation;
+        this.response = response;
+        this.coefficients = coefficients;
+        this.intercept = intercept;
+        this.rSquared = rSquared;
+        this.status = status;
+    }
+
+    public static FrameResult error(String status) {
+        return new FrameResult(null, 0, null, null, null, null, -1, null, Double.NaN, Double.NaN, status);
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double[] getMeans() {
+        return means;
+    }
+
+    public double[] getStandardDeviations() {
+        return standardDeviations;
+    }
+
+    public double[][] getCovariance() {
+        return covariance;
+    }
+
+    public double[][] getCorrelation() {
+        return correlation;
+    }
+
+    public int getResponse() {
+        return response;
+    }
+
+    public double[] getCoefficients() {
+        return coefficients;
+    }
+
+    public double getIntercept() {
+        return intercept;
+    }
+
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Means, covariance, correlation and an OLS fit for a FrameRequest, in one pass over the
+// rows. The k x k co-moment matrix is cut into tiles of TILE_COLUMNS x TILE_COLUMNS column
+// pairs (the upper triangle only). Each tile walks the rows in blocks of BLOCK_ROWS: it
+// centres the block of each of its columns on the block mean, dots every pair of centred
+// blocks, and folds the block into its running means and co-moments with the pairwise
+// update of Chan et al. The centred blocks of a tile fit in cache, so every value is
+// loaded from memory once per tile rather than once per pair. Tiles are independent and
+// run on the worker pool when there is more than one.
+class FrameStatistics {
+    private static final int TILE_COLUMNS = 32;
+    private static final int BLOCK_ROWS = 128;
+
+    static FrameResult compute(FrameRequest request, ExecutorService workers) throws InterruptedException {
+        double[][] columns = request.getColumns();
+        if (columns == null || columns.length == 0) {
+            return FrameResult.error("Error: Empty frame");
+        }
+        int k = columns.length;
+        int rows = columns[0] == null ? 0 : columns[0].length;
+        for (double[] column : columns) {
+            if (column == null || column.length != rows) {
+                return FrameResult.error("Error: Columns must all have the same length");
+            }
+        }
+        if (rows == 0) {
+            return FrameResult.error("Error: Empty data set");
+        }
+        int response = request.getResponse();
+        if (response >= k) {
+            return FrameResult.error("Error: No column " + response + " to regress on");
+        }
+        String[] names = request.getNames();
+        if (names != null && names.length != k) {
+            return FrameResult.error("Error: " + names.length + " names for " + k + " columns");
+        }
+
+        List<Tile> tiles = new ArrayList<>();
+        for (int a0 = 0; a0 < k; a0 += TILE_COLUMNS) {
+            for (int b0 = a0; b0 < k; b0 += TILE_COLUMNS) {
+                tiles.add(new Tile(columns, a0, Math.min(a0 + TILE_COLUMNS, k), b0, Math.min(b0 + TILE_COLUMNS, k)));
+            }
+        }
+        if (tiles.size() == 1) {
+            tiles.get(0).call();
+        } else {
+            try {
+                for (Future<Tile> done : workers.invokeAll(tiles)) {
+                    done.get();
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        double[] means = new double[k];
+        double[][] covariance = new double[k][k];
+        for (Tile tile : tiles) {
+            for (int p = 0; p < tile.a1 - tile.a0; p++) {
+                for (int q = 0; q < tile.b1 - tile.b0; q++) {
+                    covariance[tile.a0 + p][tile.b0 + q] = tile.comoment[p][q] / rows;
+                    covariance[tile.b0 + q][tile.a0 + p] = tile.comoment[p][q] / rows;
+                }
+            }
+            if (tile.a0 == tile.b0) {
+                System.arraycopy(tile.meanA, 0, means, tile.a0, tile.a1 - tile.a0);
+            }
+        }
+
+        double[] standardDeviations = new double[k];
+        for (int i = 0; i < k; i++) {
+            standardDeviations[i] = Math.sqrt(covariance[i][i]);
+        }
+        double[][] correlation = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < k; j++) {
+                double scale = standardDeviations[i] * standardDeviations[j];
+                // Constant columns have no defined correlation
+                correlation[i][j] = scale > 0 ? covariance[i][j] / scale : Double.NaN;
+            }
+        }
+
+        if (response < 0) {
+            return new FrameResult(names, rows, means, standardDeviations, covariance, correlation,
+                    -1, null, Double.NaN, Double.NaN, "Success");
+        }
+        double[] coefficients = regress(covariance, response);
+        if (coefficients == null) {
+            return new FrameResult(names, rows, means, standardDeviations, covariance, correlation,
+                    response, null, Double.NaN, Double.NaN,
+                    "Success (no regression: the predictors are linearly dependent)");
+        }
+        double intercept = means[response];
+        double explained = 0;
+        for (int j = 0; j < k; j++) {
+            if (j != response) {
+                intercept -= coefficients[j] * means[j];
+                explained += coefficients[j] * covariance[j][response];
+            }
+        }
+        double rSquared = covariance[response][response] > 0 ? explained / covariance[response][response] : Double.NaN;
+        return new FrameResult(names, rows, means, standardDeviations, covariance, correlation,
+                response, coefficients, intercept, rSquared, "Success");
+    }
+
+    // Slopes of the least-squares fit of column response on every other column, from the
+    // normal equations in centred form (Sxx b = Sxy) solved by Cholesky; NaN at response.
+    // null if Sxx is singular.
+    private static double[] regress(double[][] covariance, int response) {
+        int k = covariance.length;
+        int m = k - 1;
+        int[] predictor = new int[m];
+        for (int j = 0, i = 0; j < k; j++) {
+            if (j != response) {
+                predictor[i++] = j;
+            }
+        }
+
+        // Lower-triangular L with Sxx = L L^T
+        double[][] l = new double[m][m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = covariance[predictor[i]][predictor[j]];
+                for (int t = 0; t < j; t++) {
+                    sum -= l[i][t] * l[j][t];
+                }
+                if (i == j) {
+                    // Relative tolerance, so the test doesn't depend on the columns' units
+                    if (sum <= 1e-12 * covariance[predictor[i]][predictor[i]] || sum <= 0) {
+                        return null;
+                    }
+                    l[i][i] = Math.sqrt(sum);
+                } else {
+                    l[i][j] = sum / l[j][j];
+                }
+            }
+        }
+
+        // Forward then back substitution
+        double[] y = new double[m];
+        for (int i = 0; i < m; i++) {
+            double sum = covariance[predictor[i]][response];
+            for (int t = 0; t < i; t++) {
+                sum -= l[i][t] * y[t];
+            }
+            y[i] = sum / l[i][i];
+        }
+        double[] b = new double[m];
+        for (int i = m - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int t = i + 1; t < m; t++) {
+                sum -= l[t][i] * b[t];
+            }
+            b[i] = sum / l[i][i];
+        }
+
+        double[] coefficients = new double[k];
+        coefficients[response] = Double.NaN;
+        for (int i = 0; i < m; i++) {
+            coefficients[predictor[i]] = b[i];
+        }
+        return coefficients;
+    }
+
+    // Means and co-moments (sums of products of deviations from the mean) for column pairs
+    // (a, b) with a in [a0, a1) and b in [b0, b1). A tile on the diagonal (a0 == b0) shares
+    // its A and B arrays.
+    private static final class Tile implements Callable<Tile> {
+        final double[][] columns;
+        final int a0;
+        final int a1;
+        final int b0;
+        final int b1;
+        final double[] meanA;
+        final double[] meanB;
+        final double[][] comoment;
+
+        Tile(double[][] columns, int a0, int a1, int b0, int b1) {
+            this.columns = columns;
+            this.a0 = a0;
+            this.a1 = a1;
+            this.b0 = b0;
+            this.b1 = b1;
+            meanA = new double[a1 - a0];
+            meanB = a0 == b0 ? meanA : new double[b1 - b0];
+            comoment = new double[a1 - a0][b1 - b0];
+        }
+
+        @Override
+        public Tile call() {
+            boolean diagonal = a0 == b0;
+            int na = a1 - a0;
+            int nb = b1 - b0;
+            double[][] centredA = new double[na][BLOCK_ROWS];
+            double[][] centredB = diagonal ? centredA : new double[nb][BLOCK_ROWS];
+            double[] blockMeanA = new double[na];
+            double[] blockMeanB = diagonal ? blockMeanA : new double[nb];
+            int rows = columns[0].length;
+            long n = 0;
+
+            for (int r0 = 0; r0 < rows; r0 += BLOCK_ROWS) {
+                int m = Math.min(BLOCK_ROWS, rows - r0);
+                centre(a0, na, r0, m, centredA, blockMeanA);
+                if (!diagonal) {
+                    centre(b0, nb, r0, m, centredB, blockMeanB);
+                }
+
+                long total = n + m;
+                double weight = (double) n * m / total;
+                for (int p = 0; p < na; p++) {
+                    double[] x = centredA[p];
+                    double dA = blockMeanA[p] - meanA[p];
+                    double[] row = comoment[p];
+                    // Only the upper triangle of a diagonal tile is needed
+                    for (int q = diagonal ? p : 0; q < nb; q++) {
+                        double[] y = centredB[q];
+                        double sum = 0;
+                        for (int r = 0; r < m; r++) {
+                            sum += x[r] * y[r];
+                        }
+                        row[q] += sum + dA * (blockMeanB[q] - meanB[q]) * weight;
+                    }
+                }
+                double share = (double) m / total;
+                for (int p = 0; p < na; p++) {
+                    meanA[p] += (blockMeanA[p] - meanA[p]) * share;
+                }
+                if (!diagonal) {
+                    for (int q = 0; q < nb; q++) {
+                        meanB[q] += (blockMeanB[q] - meanB[q]) * share;
+                    }
+                }
+                n = total;
+            }
+
+            if (diagonal) {
+                for (int p = 0; p < na; p++) {
+                    for (int q = 0; q < p; q++) {
+                        comoment[p][q] = comoment[q][p];
+                    }
+                }
+            }
+            return this;
+        }
+
+        // Copies rows [r0, r0 + m) of columns first.. first + count - 1, minus their mean
+        private void centre(int first, int count, int r0, int m, double[][] centred, double[] blockMean) {
+            for (int p = 0; p < count; p++) {
+                double[] column = columns[first + p];
+                double sum = 0;
+                for (int r = 0; r < m; r++) {
+                    sum += column[r0 + r];
+                }
+                double mean = sum / m;
+                double[] out = centred[p];
+                for (int r = 0; r < m; r++) {
+                    out[r] = column[r0 + r] - mean;
+                }
+                blockMean[p] = mean;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Command-line client for remote convex hulls:
+//   java HullClient <points file>
+//   java HullClient --random <count>
+// Point files use the L5_ConvexHull formats: .csv / .txt with one "x,y" pair per line
+// (an optional header line is skipped), anything else packed little-endian int32 x then y.
+// --random sends count uniformly random points in a disc.
+public class HullClient {
+    private static final int PORT = 5000;
+    private static final String SERVER_ADDRESS = "localhost"; // Change to server IP when running on different machines
+    // Hulls longer than this are only printed in part
+    private static final int MAX_PRINTED_VERTICES = 20;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || (args[0].equals("--random") && args.length < 2)) {
+            System.err.println("Usage: java HullClient <points file>");
+            System.err.println("       java HullClient --random <count>");
+            System.exit(1);
+        }
+        int[] xy = args[0].equals("--random") ? randomDisc(Integer.parseInt(args[1])) : load(Paths.get(args[0]));
+
+        long started = System.nanoTime();
+        HullResult result;
+        try (
+                Socket socket = new Socket(SERVER_ADDRESS, PORT);
+                ObjectOutputStream outputStream = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream inputStream = new ObjectInputStream(socket.getInputStream());) {
+            outputStream.writeObject(new HullRequest(xy));
+            outputStream.flush();
+            result = (HullResult) inputStream.readObject();
+        }
+        double millis = (System.nanoTime() - started) / 1e6;
+
+        System.out.println("Status: " + result.getStatus());
+        int[] vertices = result.getVertices();
+        if (vertices == null) {
+            return;
+        }
+        System.out.printf("Points: %d, hull vertices: %d, round trip: %.1f ms%n", xy.length / 2, vertices.length, millis);
+        for (int i = 0; i < vertices.length && i < MAX_PRINTED_VERTICES; i++) {
+            int v = vertices[i];
+            System.out.printf("%10d  (%d, %d)%n", v, xy[2 * v], xy[2 * v + 1]);
+        }
+        if (vertices.length > MAX_PRINTED_VERTICES) {
+            System.out.println("...");
+        }
+    }
+
+    private static int[] load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            List<String> lines = Files.readAllLines(file);
+            int[] xy = new int[2 * lines.size()];
+            int n = 0;
+            for (String line : lines) {
+                String[] parts = line.trim().split("\\s*,\\s*");
+                if (parts.length < 2) {
+                    continue;
+                }
+                try {
+                    int x = Integer.parseInt(parts[0]);
+                    int y = Integer.parseInt(parts[1]);
+                    xy[2 * n] = x;
+                    xy[2 * n + 1] = y;
+                    n++;
+                } catch (NumberFormatException e) {
+                    // Header line
+                }
+            }
+            return Arrays.copyOf(xy, 2 * n);
+        }
+        IntBuffer ints = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] xy = new int[ints.remaining() & ~1];
+        ints.get(xy);
+        return xy;
+    }
+
+    private static int[] randomDisc(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] xy = new int[2 * count];
+        double radius = 1_000_000_000;
+        for (int i = 0; i < count; i++) {
+            double r = radius * Math.sqrt(random.nextDouble());
+            double angle = random.nextDouble() * 2 * Math.PI;
+            xy[2 * i] = (int) (r * Math.cos(angle));
+            xy[2 * i + 1] = (int) (r * Math.sin(angle));
+        }
+        return xy;
+    }
+}
@@ -0,0 +1,18 @@
+import java.io.Serializable;
+
+// Convex hull request: xy holds the points packed as x0, y0, x1, y1, ... The server
+// replies with a HullResult listing the indices of the hull vertices. Coordinates must lie
+// within +/-2^30 so the orientation tests cannot overflow a long.
+class HullRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int[] xy;
+
+    public HullRequest(int[] xy) {
+        this.xy = xy;
+    }
+
+    public int[] getXy() {
+        return xy;
+    }
+}
@@ -0,0 +1,23 @@
+import java.io.Serializable;
+
+// Reply to a HullRequest: the point indices of the hull vertices, counter-clockwise
+// (y up) from the leftmost, lowest point. Collinear and duplicate points are left out.
+class HullResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int[] vertices;
+    private String status;
+
+    public HullResult(int[] vertices, String status) {
+        this.vertices = vertices;
+        this.status = status;
+    }
+
+    public int[] getVertices() {
+        return vertices;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -1,58 +1,202 @@
 import java.io.*;
 import java.net.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class Server {
     private static final int PORT = 5000;
+    private static final String DEFAULT_DATA_DIR = "data";
+    // Pushed timestamps may be at most this far ahead of the server clock. A value stamped
+    // further ahead (a skewed clock, or seconds/nanos instead of millis) would take over a
+    // window bucket and hide current values until real time caught up.
+    private static final long MAX_CLOCK_SKEW_MS = 5_000;
 
+    // Named streams pushed to in windowed mode, shared by all connections
+    private static TimeSeriesStore streams;
+    // Runs the parallel parts of a computation, shared by all connections
+    private static final ExecutorService workers = Executors.newWorkStealingPool();
+
+    // java Server [dataDir]
     public static void main(String[] args) {
         System.out.println("Starting Statistics Server on port " + PORT);
 
+        Path dataDir = Paths.get(args.length > 0 ? args[0] : DEFAULT_DATA_DIR);
+        try {
+            long started = System.nanoTime();
+            streams = TimeSeriesStore.open(dataDir);
+            System.out.printf("Recovered %d streams from %s in %.2f s%n", streams.size(), dataDir.toAbsolutePath(),
+                    (System.nanoTime() - started) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Cannot open data directory " + dataDir + ": " + e.getMessage());
+            return;
+        }
+        // Sync and snapshot on the way out so the next start has nothing to replay
+        Runtime.getRuntime().addShutdownHook(new Thread(streams::close));
+
+        // A connection may stay open for many requests (e.g. a monitor pushing values),
+        // so each one gets its own thread
+        ExecutorService connections = Executors.newCachedThreadPool();
+
         try (ServerSocket serverSocket = new ServerSocket(PORT)) {
             System.out.println("Server is listening on port " + PORT);
 
             while (true) {
-                try (
-                        Socket socket = serverSocket.accept();
-                        ObjectInputStream inputStream = new ObjectInputStream(socket.getInputStream());
-                        ObjectOutputStream outputStream = new ObjectOutputStream(socket.getOutputStream());) {
-                    System.out.println("Client connected: " + socket.getInetAddress().getHostAddress());
-
-                    // Receive data from client
-                    double[] data = (double[]) inputStream.readObject();
-                    System.out.println("Received data: " + Arrays.toString(data));
-
-                    // Check if data is valid
-                    if (data == null || data.length == 0) {
-                        outputStream.writeObject(new StatisticsResult(0, 0, "Error: Empty data set"));
-                        continue;
-                    }
-
-                    // Calculate statistics
-                    StatisticsCalculator calculator = new StatisticsCalculator(data);
-                    double mean = calculator.calculateMean();
-                    double stdDev = calculator.calculateStandardDeviation();
-
-                    // Send result back to client
-                    StatisticsResult result = new StatisticsResult(mean, stdDev, "Success");
-                    outputStream.writeObject(result);
+                Socket socket = serverSocket.accept();
+                // Replies are small; don't let Nagle hold them back for the client's next request
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> handleClient(socket));
+            }
+        } catch (IOException e) {
+            System.err.println("Server exception: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            connections.shutdown();
+        }
+    }
 
-                    System.out.println("Sent results to client - Mean: " + mean + ", StdDev: " + stdDev);
+    // Answers requests until the client closes the connection
+    private static void handleClient(Socket socket) {
+        String client = socket.getInetAddress().getHostAddress();
+        try (
+                socket;
+                ObjectInputStream inputStream = new ObjectInputStream(socket.getInputStream());
+                ObjectOutputStream outputStream = new ObjectOutputStream(socket.getOutputStream());) {
+            System.out.println("Client connected: " + client);
 
-                } catch (ClassNotFoundException e) {
-                    System.err.println("Error in data format: " + e.getMessage());
+            while (true) {
+                Object request;
+                try {
+                    request = inputStream.readObject();
                 } catch (EOFException e) {
-                    System.err.println("Client disconnected");
-                } catch (Exception e) {
-                    System.err.println("Server error: " + e.getMessage());
-                    e.printStackTrace();
+                    break;
                 }
+                outputStream.writeObject(handle(request));
+                // Forget written objects, or a long-lived connection keeps every reply alive
+                outputStream.reset();
+                outputStream.flush();
             }
-        } catch (IOException e) {
-            System.err.println("Server exception: " + e.getMessage());
+            System.out.println("Client disconnected: " + client);
+
+        } catch (ClassNotFoundException e) {
+            System.err.println("Error in data format: " + e.getMessage());
+        } catch (EOFException e) {
+            System.err.println("Client disconnected");
+        } catch (Exception e) {
+            System.err.println("Server error: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private static Object handle(Object request) {
+        if (request instanceof StreamRequest) {
+            return handleStream((StreamRequest) request);
+        }
+        if (request instanceof FrameRequest) {
+            return handleFrame((FrameRequest) request);
+        }
+        if (request instanceof HullRequest) {
+            return handleHull((HullRequest) request);
+        }
+        if (request != null && !(request instanceof double[])) {
+            return new StatisticsResult(0, 0, "Error: Unsupported request " + request.getClass().getName());
+        }
+
+        // Receive data from client
+        double[] data = (double[]) request;
+        System.out.println("Received data: " + Arrays.toString(data));
+
+        // Check if data is valid
+        if (data == null || data.length == 0) {
+            return new StatisticsResult(0, 0, "Error: Empty data set");
+        }
+
+        // Calculate statistics
+        StatisticsCalculator calculator = new StatisticsCalculator(data);
+        double mean = calculator.calculateMean();
+        double stdDev = calculator.calculateStandardDeviation();
+
+        System.out.println("Sent results to client - Mean: " + mean + ", StdDev: " + stdDev);
+        return new StatisticsResult(mean, stdDev, "Success");
+    }
+
+    private static FrameResult handleFrame(FrameRequest request) {
+        long started = System.nanoTime();
+        FrameResult result;
+        try {
+            result = FrameStatistics.compute(request, workers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FrameResult.error("Error: Interrupted");
+        }
+        if (result.getMeans() != null) {
+            System.out.printf("Computed statistics of %d columns x %d rows in %.1f ms%n", result.getMeans().length,
+                    result.getRows(), (System.nanoTime() - started) / 1e6);
+        }
+        return result;
+    }
+
+    private static HullResult handleHull(HullRequest request) {
+        long started = System.nanoTime();
+        HullResult result;
+        try {
+            result = ConvexHull.compute(request, workers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new HullResult(null, "Error: Interrupted");
+        }
+        if (result.getVertices() != null) {
+            System.out.printf("Computed hull of %d points (%d vertices) in %.1f ms%n", request.getXy().length / 2,
+                    result.getVertices().length, (System.nanoTime() - started) / 1e6);
+        }
+        return result;
+    }
+
+    private static WindowResult handleStream(StreamRequest request) {
+        String stream = request.getStream();
+        if (stream == null || stream.isEmpty()) {
+            return WindowResult.error("Error: Missing stream name");
+        }
+
+        if (request.getOp() == StreamRequest.Op.PUSH) {
+            double[] values = request.getValues();
+            long[] timestamps = request.getTimestamps();
+            if (values == null || values.length == 0) {
+                return WindowResult.error("Error: Empty data set");
+            }
+            if (timestamps != null && timestamps.length != values.length) {
+                return WindowResult.error("Error: " + timestamps.length + " timestamps for "
+                        + values.length + " values");
+            }
+            long receivedAt = System.currentTimeMillis();
+            if (timestamps != null) {
+                for (long timestamp : timestamps) {
+                    if (timestamp > receivedAt + MAX_CLOCK_SKEW_MS) {
+                        return WindowResult.error("Error: Timestamp " + timestamp
+                                + " is in the future (server time " + receivedAt + ")");
+                    }
+                }
+            }
+            int windowed;
+            try {
+                windowed = streams.push(stream, timestamps, values, receivedAt);
+            } catch (IOException e) {
+                System.err.println("Error storing stream " + stream + ": " + e.getMessage());
+                return WindowResult.error("Error: Could not store values: " + e.getMessage());
+            }
+            return WindowResult.stored(values.length, windowed == values.length ? "Success"
+                    : (values.length - windowed) + " values were older than every window and only count towards all");
+        }
+
+        if (request.getWindow() == null || request.getMode() == null) {
+            return WindowResult.error("Error: Query needs a window and a mode");
+        }
+        long asOf = request.getAsOf() == 0 ? System.currentTimeMillis() : request.getAsOf();
+        WindowResult result = streams.query(stream, request.getWindow(), request.getMode(), asOf);
+        return result == null ? WindowResult.error("Error: Unknown stream " + stream) : result;
+    }
 }
 
 // Class for statistical calculations
@@ -110,4 +254,4 @@ class StatisticsResult implements Serializable {
     public String getStatus() {
         return status;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+import java.io.*;
+import java.net.*;
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.util.Arrays;
+
+// Command-line client for the server's windowed mode:
+//   java StreamClient push <stream> [value ...]
+//       pushes the given values stamped with the server's clock; with no values, reads
+//       "value" or "epochMillis value" lines from stdin and pushes them in batches
+//   java StreamClient query <stream> <1m|5m|1h> [sliding|tumbling]
+public class StreamClient {
+    private static final int PORT = 5000;
+    private static final String SERVER_ADDRESS = "localhost"; // Change to server IP when running on different machines
+    private static final int BATCH = 1000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java StreamClient push <stream> [value ...]");
+            System.err.println("       java StreamClient query <stream> <1m|5m|1h> [sliding|tumbling]");
+            System.exit(1);
+        }
+
+        try (
+                Socket socket = new Socket(SERVER_ADDRESS, PORT);
+                ObjectOutputStream outputStream = new ObjectOutputStream(socket.getOutputStream());
+                ObjectInputStream inputStream = new ObjectInputStream(socket.getInputStream());) {
+            socket.setTcpNoDelay(true);
+            String stream = args[1];
+            if (args[0].equals("push")) {
+                if (args.length > 2) {
+                    double[] values = new double[args.length - 2];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Double.parseDouble(args[i + 2]);
+                    }
+                    print(send(outputStream, inputStream, StreamRequest.push(stream, null, values)));
+                } else {
+                    pushLines(stream, outputStream, inputStream);
+                }
+            } else if (args[0].equals("query")) {
+                StreamRequest.Window window = StreamRequest.Window.parse(args.length > 2 ? args[2] : "1m");
+                StreamRequest.Mode mode = args.length > 3
+                        ? StreamRequest.Mode.valueOf(args[3].toUpperCase())
+                        : StreamRequest.Mode.SLIDING;
+                print(send(outputStream, inputStream, StreamRequest.query(stream, window, mode)));
+            } else {
+                System.err.println("Unknown command " + args[0]);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void pushLines(String stream, ObjectOutputStream outputStream,
+            ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        long[] timestamps = new long[BATCH];
+        double[] values = new double[BATCH];
+        int n = 0;
+        long stored = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split("[,\\s]+");
+            if (parts.length >= 2) {
+                timestamps[n] = Long.parseLong(parts[0]);
+                values[n] = Double.parseDouble(parts[1]);
+            } else {
+                timestamps[n] = System.currentTimeMillis();
+                values[n] = Double.parseDouble(parts[0]);
+            }
+            if (++n == BATCH) {
+                stored += pushBatch(outputStream, inputStream, StreamRequest.push(stream, timestamps, values));
+                n = 0;
+            }
+        }
+        if (n > 0) {
+            stored += pushBatch(outputStream, inputStream, StreamRequest.push(stream,
+                    Arrays.copyOf(timestamps, n), Arrays.copyOf(values, n)));
+        }
+        System.out.println("Stored " + stored + " values in " + stream);
+    }
+
+    // Values stored by one batch; a rejected batch stores none and its error is shown
+    private static long pushBatch(ObjectOutputStream outputStream, ObjectInputStream inputStream,
+            StreamRequest request) throws IOException, ClassNotFoundException {
+        WindowResult result = send(outputStream, inputStream, request);
+        if (result.getStatus().startsWith("Error")) {
+            System.err.println(result.getStatus());
+        }
+        return result.getCount();
+    }
+
+    private static WindowResult send(ObjectOutputStream outputStream, ObjectInputStream inputStream,
+            StreamRequest request) throws IOException, ClassNotFoundException {
+        outputStream.writeObject(request);
+        // The batch arrays are reused, so they must be written afresh each time
+        outputStream.reset();
+        outputStream.flush();
+        return (WindowResult) inputStream.readObject();
+    }
+
+    private static void print(WindowResult result) {
+        DecimalFormat df = new DecimalFormat("#.####");
+        System.out.println("Status: " + result.getStatus());
+        if (result.getTo() == 0) {
+            System.out.println("Count: " + result.getCount());
+            return;
+        }
+        System.out.println("Window: " + Instant.ofEpochMilli(result.getFrom()) + " to "
+                + Instant.ofEpochMilli(result.getTo()));
+        System.out.println("Count: " + result.getCount());
+        if (result.getCount() > 0) {
+            System.out.println("Mean: " + df.format(result.getMean()));
+            System.out.println("Standard Deviation: " + df.format(result.getStandardDeviation()));
+            System.out.println("Min: " + df.format(result.getMin()));
+            System.out.println("Max: " + df.format(result.getMax()));
+        }
+    }
+}
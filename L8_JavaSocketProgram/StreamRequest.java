@@ -0,0 +1,108 @@
+import java.io.Serializable;
+
+// Request for the windowed mode of the server: push timestamped values into a named
+// stream, or ask for statistics over one of its recent windows. The server answers
+// every StreamRequest with a WindowResult.
+class StreamRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    enum Op {
+        PUSH, QUERY
+    }
+
+    // The windows every stream keeps aggregates for. ALL covers every value the stream has
+    // received, including values too old for the timed windows; it ignores the mode.
+    enum Window {
+        LAST_1M(60_000L), LAST_5M(300_000L), LAST_1H(3_600_000L), ALL(0L);
+
+        final long millis;
+
+        Window(long millis) {
+            this.millis = millis;
+        }
+
+        static Window parse(String text) {
+            switch (text.toLowerCase()) {
+                case "1m":
+                    return LAST_1M;
+                case "5m":
+                    return LAST_5M;
+                case "1h":
+                    return LAST_1H;
+                case "all":
+                    return ALL;
+                default:
+                    throw new IllegalArgumentException("Unknown window " + text + " (expected 1m, 5m, 1h or all)");
+            }
+        }
+    }
+
+    // SLIDING covers the window ending now; TUMBLING the last complete window aligned to
+    // multiples of its length (e.g. the previous whole minute)
+    enum Mode {
+        SLIDING, TUMBLING
+    }
+
+    private Op op;
+    private String stream;
+    private long[] timestamps;
+    private double[] values;
+    private Window window;
+    private Mode mode;
+    private long asOf;
+
+    private StreamRequest(Op op, String stream) {
+        this.op = op;
+        this.stream = stream;
+    }
+
+    // timestamps are epoch milliseconds, one per value; null stamps every value with the
+    // time the server receives the request
+    public static StreamRequest push(String stream, long[] timestamps, double[] values) {
+        StreamRequest request = new StreamRequest(Op.PUSH, stream);
+        request.timestamps = timestamps;
+        request.values = values;
+        return request;
+    }
+
+    public static StreamRequest query(String stream, Window window, Mode mode) {
+        return query(stream, window, mode, 0);
+    }
+
+    // asOf is the epoch millisecond the window is evaluated at; 0 means the server's clock
+    public static StreamRequest query(String stream, Window window, Mode mode, long asOf) {
+        StreamRequest request = new StreamRequest(Op.QUERY, stream);
+        request.window = window;
+        request.mode = mode;
+        request.asOf = asOf;
+        return request;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public String getStream() {
+        return stream;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public Window getWindow() {
+        return window;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getAsOf() {
+        return asOf;
+    }
+}
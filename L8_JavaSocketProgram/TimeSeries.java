@@ -0,0 +1,285 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// One stream: a ring of buckets per timed window, each window split into BUCKETS_PER_WINDOW
+// buckets (1 s for the last minute, 5 s for 5 minutes, 1 min for the hour), plus running
+// moments of every value ever pushed. A value updates one bucket per window and a query
+// merges at most BUCKETS_PER_WINDOW + 1 buckets, however many values the window holds.
+// Sliding windows have bucket resolution: they start at the bucket boundary before
+// asOf - length and end at the one after asOf, so either end may include up to one bucket
+// width extra.
+class TimeSeries implements Closeable {
+    static final int BUCKETS_PER_WINDOW = 60;
+
+    private final BucketRing[] rings;
+    // Running moments of all values, and the range of their timestamps
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long first = Long.MAX_VALUE;
+    private long last = Long.MIN_VALUE;
+    // null while the stream is only kept in memory
+    private DatasetLog log;
+
+    TimeSeries() {
+        // Window.ALL comes last and has no ring
+        StreamRequest.Window[] windows = StreamRequest.Window.values();
+        rings = new BucketRing[windows.length - 1];
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new BucketRing(windows[i].millis / BUCKETS_PER_WINDOW);
+        }
+    }
+
+    void attach(DatasetLog log) {
+        this.log = log;
+    }
+
+    synchronized int add(long[] timestamps, double[] values, long receivedAt) throws IOException {
+        if (timestamps == null) {
+            timestamps = new long[values.length];
+            Arrays.fill(timestamps, receivedAt);
+        }
+        // Logged first: a value that failed to reach the log must not be counted either
+        if (log != null) {
+            log.append(timestamps, values, values.length);
+        }
+        int windowed = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (apply(timestamps[i], values[i])) {
+                windowed++;
+            }
+        }
+        return windowed;
+    }
+
+    // Adds one value to the running moments and every ring. The caller holds the lock, or
+    // is recovering the series before anyone else can see it.
+    boolean apply(long timestamp, double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        first = Math.min(first, timestamp);
+        last = Math.max(last, timestamp);
+
+        boolean kept = false;
+        for (BucketRing ring : rings) {
+            kept |= ring.add(timestamp, value);
+        }
+        return kept;
+    }
+
+    synchronized WindowResult aggregate(StreamRequest.Window window, StreamRequest.Mode mode, long asOf) {
+        if (window == StreamRequest.Window.ALL) {
+            if (count == 0) {
+                return new WindowResult(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 0, "Empty window");
+            }
+            return new WindowResult(count, mean, Math.sqrt(m2 / count), min, max, first, last + 1, "Success");
+        }
+        BucketRing ring = rings[window.ordinal()];
+        if (mode == StreamRequest.Mode.TUMBLING) {
+            // First bucket of the window containing asOf, which is still filling
+            long end = Math.floorDiv(asOf, window.millis) * BUCKETS_PER_WINDOW;
+            return ring.merge(end - BUCKETS_PER_WINDOW, end);
+        }
+        // BUCKETS_PER_WINDOW + 1 buckets, since asOf is inside the last; the ring has two
+        // windows of slots
+        return ring.merge(Math.floorDiv(asOf - window.millis, ring.width), Math.floorDiv(asOf, ring.width) + 1);
+    }
+
+    void force() throws IOException {
+        if (log != null) {
+            log.force();
+        }
+    }
+
+    // Snapshots the aggregates if values were pushed since the last snapshot
+    void snapshot() throws IOException {
+        if (log == null) {
+            return;
+        }
+        long covered;
+        ByteBuffer state;
+        synchronized (this) {
+            covered = log.rows();
+            if (covered == log.snapshotRows()) {
+                return;
+            }
+            state = ByteBuffer.allocate(stateBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            writeState(state);
+            state.flip();
+        }
+        // Everything the state covers must be on disk before the snapshot claims it
+        log.force();
+        log.writeSnapshot(state, covered);
+    }
+
+    private int stateBytes() {
+        return 56 + 4 + rings.length * BucketRing.stateBytes();
+    }
+
+    private void writeState(ByteBuffer buffer) {
+        buffer.putLong(count).putDouble(mean).putDouble(m2).putDouble(min).putDouble(max)
+                .putLong(first).putLong(last);
+        buffer.putInt(rings.length);
+        for (BucketRing ring : rings) {
+            ring.writeState(buffer);
+        }
+    }
+
+    // False, with the series partly overwritten, if the state was written with other windows
+    boolean readState(ByteBuffer buffer) {
+        if (buffer.remaining() != stateBytes()) {
+            return false;
+        }
+        count = buffer.getLong();
+        mean = buffer.getDouble();
+        m2 = buffer.getDouble();
+        min = buffer.getDouble();
+        max = buffer.getDouble();
+        first = buffer.getLong();
+        last = buffer.getLong();
+        if (buffer.getInt() != rings.length) {
+            return false;
+        }
+        for (BucketRing ring : rings) {
+            if (!ring.readState(buffer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        first = Long.MAX_VALUE;
+        last = Long.MIN_VALUE;
+        for (BucketRing ring : rings) {
+            ring.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+}
+
+// Per-bucket count, mean, sum of squared deviations, min and max in parallel primitive
+// arrays, allocated once. Slot s holds bucket index start[s]; a bucket is reused once the
+// ring wraps. There are two windows' worth of slots, so the previous tumbling window is
+// still complete while the current one fills.
+class BucketRing {
+    private static final int SLOTS = 2 * TimeSeries.BUCKETS_PER_WINDOW;
+
+    final long width;
+    private final long[] start = new long[SLOTS];
+    private final long[] count = new long[SLOTS];
+    private final double[] mean = new double[SLOTS];
+    private final double[] m2 = new double[SLOTS];
+    private final double[] min = new double[SLOTS];
+    private final double[] max = new double[SLOTS];
+
+    BucketRing(long width) {
+        this.width = width;
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(start, Long.MIN_VALUE);
+        Arrays.fill(count, 0);
+    }
+
+    // False if the value's bucket has already been overwritten by a newer one
+    boolean add(long timestamp, double value) {
+        long bucket = Math.floorDiv(timestamp, width);
+        int s = (int) Math.floorMod(bucket, (long) SLOTS);
+        if (start[s] != bucket) {
+            if (start[s] > bucket) {
+                return false;
+            }
+            start[s] = bucket;
+            count[s] = 0;
+            mean[s] = 0;
+            m2[s] = 0;
+            min[s] = Double.POSITIVE_INFINITY;
+            max[s] = Double.NEGATIVE_INFINITY;
+        }
+        // Welford's update
+        long n = ++count[s];
+        double delta = value - mean[s];
+        mean[s] += delta / n;
+        m2[s] += delta * (value - mean[s]);
+        min[s] = Math.min(min[s], value);
+        max[s] = Math.max(max[s], value);
+        return true;
+    }
+
+    // Combines buckets [from, to) with the pairwise variance formula of Chan et al.
+    WindowResult merge(long from, long to) {
+        long n = 0;
+        double mu = 0;
+        double sq = 0;
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        for (long bucket = from; bucket < to; bucket++) {
+            int s = (int) Math.floorMod(bucket, (long) SLOTS);
+            if (start[s] != bucket) {
+                continue;
+            }
+            long total = n + count[s];
+            double delta = mean[s] - mu;
+            mu += delta * count[s] / total;
+            sq += m2[s] + delta * delta * ((double) n * count[s] / total);
+            n = total;
+            lo = Math.min(lo, min[s]);
+            hi = Math.max(hi, max[s]);
+        }
+        if (n == 0) {
+            return new WindowResult(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                    from * width, to * width, "Empty window");
+        }
+        // Population standard deviation, as StatisticsCalculator computes it
+        return new WindowResult(n, mu, Math.sqrt(sq / n), lo, hi, from * width, to * width, "Success");
+    }
+
+    static int stateBytes() {
+        return 12 + SLOTS * 6 * 8;
+    }
+
+    void writeState(ByteBuffer buffer) {
+        buffer.putLong(width).putInt(SLOTS);
+        for (int s = 0; s < SLOTS; s++) {
+            buffer.putLong(start[s]).putLong(count[s]).putDouble(mean[s]).putDouble(m2[s])
+                    .putDouble(min[s]).putDouble(max[s]);
+        }
+    }
+
+    boolean readState(ByteBuffer buffer) {
+        if (buffer.getLong() != width || buffer.getInt() != SLOTS) {
+            return false;
+        }
+        for (int s = 0; s < SLOTS; s++) {
+            start[s] = buffer.getLong();
+            count[s] = buffer.getLong();
+            mean[s] = buffer.getDouble();
+            m2[s] = buffer.getDouble();
+            min[s] = buffer.getDouble();
+            max[s] = buffer.getDouble();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Named time series for the server's windowed mode. Streams are created by their first push.
+// A store opened on a directory keeps every stream in a DatasetLog under it: pushes are
+// appended straight away, fsynced in batches every FSYNC_INTERVAL_MS, and the aggregates
+// are snapshotted every SNAPSHOT_INTERVAL_MS so a restart only replays the values pushed
+// since. A crash can lose at most the last FSYNC_INTERVAL_MS of pushes.
+class TimeSeriesStore implements Closeable {
+    private static final long FSYNC_INTERVAL_MS = 200;
+    private static final long SNAPSHOT_INTERVAL_MS = 30_000;
+
+    private final ConcurrentHashMap<String, TimeSeries> streams = new ConcurrentHashMap<>();
+    // null for a store kept only in memory
+    private final Path dir;
+    private ScheduledExecutorService flusher;
+
+    TimeSeriesStore() {
+        this(null);
+    }
+
+    private TimeSeriesStore(Path dir) {
+        this.dir = dir;
+    }
+
+    // Recovers every stream stored under dir, in parallel, and starts the background flusher
+    static TimeSeriesStore open(Path dir) throws IOException {
+        TimeSeriesStore store = new TimeSeriesStore(dir);
+        Files.createDirectories(dir);
+        List<Path> datasets;
+        try (Stream<Path> children = Files.list(dir)) {
+            datasets = children.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        try {
+            datasets.parallelStream().forEach(d -> {
+                String name = decodeName(d.getFileName().toString());
+                store.streams.put(name, store.create(name));
+            });
+        } catch (UncheckedIOException e) {
+            store.close();
+            throw e.getCause();
+        }
+
+        store.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "TimeSeriesStore flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        store.flusher.scheduleWithFixedDelay(store::force, FSYNC_INTERVAL_MS, FSYNC_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+        store.flusher.scheduleWithFixedDelay(store::snapshot, SNAPSHOT_INTERVAL_MS, SNAPSHOT_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    private TimeSeries create(String name) {
+        TimeSeries series = new TimeSeries();
+        if (dir != null) {
+            try {
+                series.attach(DatasetLog.open(dir.resolve(encodeName(name)), series));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return series;
+    }
+
+    // Returns how many of the values fell inside at least one timed window; the others
+    // only count towards Window.ALL
+    public int push(String stream, long[] timestamps, double[] values, long receivedAt) throws IOException {
+        try {
+            return streams.computeIfAbsent(stream, this::create).add(timestamps, values, receivedAt);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // null if the stream has never been pushed to
+    public WindowResult query(String stream, StreamRequest.Window window, StreamRequest.Mode mode, long asOf) {
+        TimeSeries series = streams.get(stream);
+        return series == null ? null : series.aggregate(window, mode, asOf);
+    }
+
+    public int size() {
+        return streams.size();
+    }
+
+    private void force() {
+        for (TimeSeries series : streams.values()) {
+            try {
+                series.force();
+            } catch (IOException e) {
+                System.err.println("Error syncing stream data: " + e.getMessage());
+            }
+        }
+    }
+
+    private void snapshot() {
+        for (TimeSeries series : streams.values()) {
+            try {
+                series.snapshot();
+            } catch (IOException e) {
+                System.err.println("Error writing stream snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    // Syncs and snapshots every stream, then closes their files
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        force();
+        snapshot();
+        for (TimeSeries series : streams.values()) {
+            try {
+                series.close();
+            } catch (IOException e) {
+                System.err.println("Error closing stream data: " + e.getMessage());
+            }
+        }
+    }
+
+    // Stream names become directory names: letters, digits, '-' and '_' are kept and every
+    // other UTF-8 byte is written as %XX, so no name can reach outside the store
+    static String encodeName(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                sb.append(c);
+            } else {
+                sb.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return sb.toString();
+    }
+
+    static String decodeName(String encoded) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '%' && i + 2 < encoded.length()) {
+                bytes.write(Integer.parseInt(encoded.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                bytes.write(c);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+import java.io.Serializable;
+
+// Reply to a StreamRequest. For a query it holds the statistics of the values in
+// [from, to); for a push, count is the number of values stored and the rest is unset.
+class WindowResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+    private double mean;
+    private double standardDeviation;
+    private double min;
+    private double max;
+    private long from;
+    private long to;
+    private String status;
+
+    public WindowResult(long count, double mean, double standardDeviation, double min, double max,
+            long from, long to, String status) {
+        this.count = count;
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.min = min;
+        this.max = max;
+        this.from = from;
+        this.to = to;
+        this.status = status;
+    }
+
+    public static WindowResult stored(long count, String status) {
+        return new WindowResult(count, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 0, status);
+    }
+
+    public static WindowResult error(String status) {
+        return stored(0, status);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}